@@ -1,6 +1,7 @@
 package io.papermc.typewriter;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.MapMaker;
 import io.papermc.typewriter.util.ClassHelper;
 import io.papermc.typewriter.util.ClassResolver;
 import javax.lang.model.SourceVersion;
@@ -9,7 +10,8 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.framework.qual.DefaultQualifier;
 import org.jetbrains.annotations.Contract;
 
-import java.util.Objects;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @DefaultQualifier(NonNull.class)
 public record ClassNamed(String packageName, String simpleName, String dottedNestedName, @Nullable Class<?> reference) {
@@ -27,6 +29,24 @@ public record ClassNamed(String packageName, String simpleName, String dottedNes
         }
     }
 
+    // package -> dotted nested name -> class named, only for the names without reference
+    // values are weakly referenced so the unused names don't pile up in a long-lived process
+    private static final Map<String, Map<String, ClassNamed>> INTERNED = new ConcurrentHashMap<>();
+
+    // names are only validated while no instance of the same name is alive
+    private static ClassNamed intern(String packageName, String simpleName, String dottedNestedName) {
+        @Nullable Map<String, ClassNamed> names = INTERNED.get(packageName);
+        if (names == null) {
+            names = INTERNED.computeIfAbsent(packageName, key -> new MapMaker().weakValues().makeMap());
+        }
+
+        @Nullable ClassNamed type = names.get(dottedNestedName);
+        if (type == null) {
+            type = names.computeIfAbsent(dottedNestedName, key -> new ClassNamed(packageName, simpleName, dottedNestedName, null));
+        }
+        return type;
+    }
+
     /**
      * Creates a class named object.
      *
@@ -37,7 +57,7 @@ public record ClassNamed(String packageName, String simpleName, String dottedNes
      * class name using such character would be interpreted as is too.
      * To support those class names use {@link #of(String, String, String...)}
      */
-    @Contract(value = "_, _ -> new", pure = true)
+    @Contract(value = "_, _ -> !null", pure = true)
     public static ClassNamed of(String packageName, String name) {
         int nestedIndex = name.lastIndexOf('$');
         final String simpleName;
@@ -49,7 +69,7 @@ public record ClassNamed(String packageName, String simpleName, String dottedNes
             simpleName = name;
             nestedName = name;
         }
-        return new ClassNamed(packageName, simpleName, nestedName, null);
+        return intern(packageName, simpleName, nestedName);
     }
 
     /**
@@ -60,7 +80,7 @@ public record ClassNamed(String packageName, String simpleName, String dottedNes
      * @param nestedNames the nested class names
      * @return the new object
      */
-    @Contract(value = "_, _, _ -> new", pure = true)
+    @Contract(value = "_, _, _ -> !null", pure = true)
     public static ClassNamed of(String packageName, String name, String... nestedNames) {
         final String simpleName;
         final String nestedName;
@@ -71,7 +91,7 @@ public record ClassNamed(String packageName, String simpleName, String dottedNes
             simpleName = name;
             nestedName = name;
         }
-        return new ClassNamed(packageName, simpleName, nestedName, null);
+        return intern(packageName, simpleName, nestedName);
     }
 
     private static final ClassValue<ClassNamed> CACHE = new ClassValue<>() {
@@ -114,7 +134,7 @@ public record ClassNamed(String packageName, String simpleName, String dottedNes
         int dotIndex = this.dottedNestedName.indexOf('.');
         if (dotIndex != -1) {
             String name = this.dottedNestedName.substring(0, dotIndex);
-            return new ClassNamed(this.packageName, name, name, null);
+            return intern(this.packageName, name, name);
         }
         return this;
     }
@@ -143,7 +163,7 @@ public record ClassNamed(String packageName, String simpleName, String dottedNes
             } else {
                 simpleName = name; // top level
             }
-            return new ClassNamed(this.packageName, simpleName, name, null);
+            return intern(this.packageName, simpleName, name);
         }
         return null;
     }
@@ -157,7 +177,7 @@ public record ClassNamed(String packageName, String simpleName, String dottedNes
             }
         }
 
-        return new ClassNamed(this.packageName, name, this.dottedNestedName + '.' + name, null);
+        return intern(this.packageName, name, this.dottedNestedName + '.' + name);
     }
 
     public String relativize(ClassNamed otherType) {
@@ -211,7 +231,7 @@ public record ClassNamed(String packageName, String simpleName, String dottedNes
 
     @Override
     public int hashCode() {
-        return Objects.hash(this.packageName, this.dottedNestedName);
+        return 31 * (31 + this.packageName.hashCode()) + this.dottedNestedName.hashCode(); // same as Objects.hash without boxing, string hashes are cached
     }
 
     @Override
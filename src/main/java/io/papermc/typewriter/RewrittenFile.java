@@ -0,0 +1,124 @@
+package io.papermc.typewriter;
+
+import io.papermc.typewriter.util.SafeFiles;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The result of a source rewriter not yet written to its destination.
+ *
+ * @param source the rewritten source file
+ * @param destination the path where the content must be written
+ * @param content the rewritten content
+ * @param changed {@code false} if the rewriters are known to leave the destination untouched
+ */
+@DefaultQualifier(NonNull.class)
+public record RewrittenFile(SourceFile source, Path destination, SafeFiles.ContentWriter content, boolean changed) {
+
+    public RewrittenFile(SourceFile source, Path destination, SafeFiles.ContentWriter content) {
+        this(source, destination, content, true);
+    }
+
+    /**
+     * Writes the content to the destination, unless it's known to be unchanged.
+     *
+     * @throws IOException if an I/O error occur
+     */
+    public void write() throws IOException {
+        if (!this.changed) {
+            return;
+        }
+        SafeFiles.write(this.destination, this.content);
+    }
+
+    /**
+     * Writes the content to a temporary file next to the destination,
+     * to be moved later with {@link SafeFiles#commit(Path, Path)}.
+     *
+     * @return the temporary file
+     * @throws IOException if an I/O error occur
+     */
+    public Path stage() throws IOException {
+        return SafeFiles.stage(this.destination, this.content);
+    }
+
+    /**
+     * Gets the rewritten content.
+     *
+     * @return the content
+     * @throws IOException if an I/O error occur
+     */
+    public String contentAsString() throws IOException {
+        StringWriter writer = new StringWriter();
+        this.content.writeTo(writer);
+        return writer.toString();
+    }
+
+    /**
+     * Checks if the destination already has the rewritten content.
+     *
+     * @return {@code true} if the destination doesn't need to be written
+     * @throws IOException if an I/O error occur
+     */
+    public boolean isUpToDate() throws IOException {
+        if (!this.changed) {
+            return true;
+        }
+        if (!Files.isRegularFile(this.destination)) {
+            return false;
+        }
+
+        ComparingWriter writer = new ComparingWriter(Files.readString(this.destination, StandardCharsets.UTF_8));
+        this.content.writeTo(writer);
+        return writer.matches();
+    }
+
+    // compares the content as it is written without building it
+    private static final class ComparingWriter extends Writer {
+
+        private final String expected;
+        private int cursor;
+        private boolean mismatch;
+
+        private ComparingWriter(String expected) {
+            this.expected = expected;
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            if (this.mismatch) {
+                return;
+            }
+            if (this.cursor + length > this.expected.length()) {
+                this.mismatch = true;
+                return;
+            }
+
+            for (int i = 0; i < length; i++) {
+                if (this.expected.charAt(this.cursor++) != buffer[offset + i]) {
+                    this.mismatch = true;
+                    return;
+                }
+            }
+        }
+
+        public boolean matches() {
+            return !this.mismatch && this.cursor == this.expected.length();
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
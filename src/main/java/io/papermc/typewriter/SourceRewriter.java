@@ -5,7 +5,11 @@ import io.papermc.typewriter.util.ClassNamedView;
 import io.papermc.typewriter.util.ClassResolver;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
 
 public interface SourceRewriter {
 
@@ -19,6 +23,48 @@ public interface SourceRewriter {
         return true;
     }
 
+    /**
+     * Apply this rewriter to a source file without writing the result.
+     * <br>
+     * The default implementation only exists for the rewriters predating
+     * this method: it runs {@link #writeToFile} against a temporary copy
+     * of the source file and returns its content. One of the two methods
+     * must be overridden, new rewriters should override this one.
+     *
+     * @param parent the parent of the source file (a source set path)
+     * @param metadata the sources metadata
+     * @param resolver the class resolver
+     * @param view the class named view
+     * @param file the source file
+     * @return the rewritten file
+     * @throws IOException if an I/O error occur
+     */
+    @SuppressWarnings("deprecation")
+    default RewrittenFile rewrite(Path parent, SourcesMetadata metadata, ClassResolver resolver, ClassNamedView view, SourceFile file) throws IOException {
+        Path path = parent.resolve(file.path());
+        Path tempParent = Files.createTempDirectory("typewriter");
+        try {
+            Path tempPath = tempParent.resolve(file.path());
+            Files.createDirectories(tempPath.getParent());
+            if (Files.isRegularFile(path)) {
+                Files.copy(path, tempPath);
+            }
+            this.writeToFile(tempParent, metadata, resolver, view, file);
+            if (!Files.isRegularFile(tempPath)) {
+                throw new IllegalStateException("Rewriter " + this.getClass().getName() + " didn't write " + file.path());
+            }
+
+            String content = Files.readString(tempPath, StandardCharsets.UTF_8);
+            return new RewrittenFile(file, path, writer -> writer.append(content));
+        } finally {
+            try (Stream<Path> paths = Files.walk(tempParent)) {
+                for (Path tempFile : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(tempFile);
+                }
+            }
+        }
+    }
+
     /**
      * Apply this rewriter to a source file
      *
@@ -28,6 +74,10 @@ public interface SourceRewriter {
      * @param view the class named view
      * @param file the source file
      * @throws IOException if an I/O error occur
+     * @deprecated use {@link #rewrite} and {@link RewrittenFile#write()} instead
      */
-    void writeToFile(Path parent, SourcesMetadata metadata, ClassResolver resolver, ClassNamedView view, SourceFile file) throws IOException;
+    @Deprecated
+    default void writeToFile(Path parent, SourcesMetadata metadata, ClassResolver resolver, ClassNamedView view, SourceFile file) throws IOException {
+        this.rewrite(parent, metadata, resolver, view, file).write();
+    }
 }
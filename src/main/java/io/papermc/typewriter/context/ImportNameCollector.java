@@ -20,6 +20,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Supplier;
@@ -141,31 +142,55 @@ public class ImportNameCollector implements ImportCollector {
 
     @Override
     public String getShortName(ClassNamed type, boolean autoImport) {
-        return this.typeCache.computeIfAbsent(type, key -> {
-            Optional<String> shortName = getShortName0(key, ImportCategory.TYPE); // regular import
-            if (shortName.isEmpty() && key.reference() != null && Modifier.isStatic(key.reference().getModifiers())) {
-                shortName = getShortName0(key, ImportCategory.STATIC);
+        return this.typeCache.computeIfAbsent(type, key -> Objects.requireNonNull(this.resolveShortName(key, autoImport, true)));
+    }
+
+    /**
+     * Gets the short name of a type like {@link #getShortName(ClassNamed)}
+     * but without adding any import.
+     *
+     * @param type the type
+     * @return the short name or {@code null} if the type would be imported
+     */
+    public @Nullable String getShortNameWithoutImport(ClassNamed type) {
+        @Nullable String shortName = this.typeCache.get(type);
+        if (shortName == null) {
+            shortName = this.resolveShortName(type, true, false);
+            if (shortName != null) {
+                this.typeCache.put(type, shortName);
             }
+        }
+        return shortName;
+    }
 
-            return shortName.orElseGet(() -> {
-                // import have priority over those implicit things
-                if (key.packageName().equals(JAVA_LANG_PACKAGE) || // auto-import
-                    key.packageName().equals(this.mainClass.packageName()) // same package don't need fqn too
-                ) {
-                    return key.dottedNestedName();
-                }
+    private @Nullable String resolveShortName(ClassNamed type, boolean autoImport, boolean canAddImport) {
+        Optional<String> shortName = getShortName0(type, ImportCategory.TYPE); // regular import
+        if (shortName.isEmpty() && type.reference() != null && Modifier.isStatic(type.reference().getModifiers())) {
+            shortName = getShortName0(type, ImportCategory.STATIC);
+        }
+        if (shortName.isPresent()) {
+            return shortName.get();
+        }
 
-                if (autoImport) {
-                    ClassNamed topType = key.topLevel();
-                    if (this.canImportSafely(topType)) {
-                        this.addSingleImport(topType); // only import top level, nested class are rarely imported directly
-                        return key.dottedNestedName();
-                    }
+        // import have priority over those implicit things
+        if (type.packageName().equals(JAVA_LANG_PACKAGE) || // auto-import
+            type.packageName().equals(this.mainClass.packageName()) // same package don't need fqn too
+        ) {
+            return type.dottedNestedName();
+        }
+
+        if (autoImport) {
+            ClassNamed topType = type.topLevel();
+            if (this.canImportSafely(topType)) {
+                if (!canAddImport) {
+                    return null;
                 }
+                this.addSingleImport(topType); // only import top level, nested class are rarely imported directly
+                return type.dottedNestedName();
+            }
+        }
 
-                return key.canonicalName();
-            });
-        });
+        return type.canonicalName();
     }
 
 
@@ -3,14 +3,22 @@ package io.papermc.typewriter.context;
 import com.google.common.base.Preconditions;
 import io.papermc.typewriter.ClassNamed;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.framework.qual.DefaultQualifier;
 import org.jetbrains.annotations.Contract;
 
+import java.util.Arrays;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 @DefaultQualifier(NonNull.class)
 public record IndentUnit(String content, int size, char character) implements CharSequence {
 
+    private static final int INITIAL_TABLE_SIZE = 32;
+    private static final int MAX_CACHED_WIDTH = 256;
+    private static final Map<Character, String[]> WHITESPACES = new ConcurrentHashMap<>(); // character -> whitespace by width
+
     @Contract(value = "_ -> new", pure = true)
     public static IndentUnit parseUnsafe(String content) {
         return new IndentUnit(content, content.length(), content.charAt(0));
@@ -61,9 +69,54 @@ public record IndentUnit(String content, int size, char character) implements Ch
         return this.content.subSequence(beginIndex, endIndex);
     }
 
+    /**
+     * Gets the indentation of a nesting level.
+     * The common levels are cached and shared between the indent units.
+     *
+     * @param level the nesting level
+     * @return the indentation
+     */
+    public String indentation(int level) {
+        return this.whitespace(level * this.size);
+    }
+
+    /**
+     * Gets the indent character repeated a number of times.
+     * The common widths are cached and shared between the indent units.
+     *
+     * @param width the number of characters
+     * @return the whitespace
+     */
+    public String whitespace(int width) {
+        Preconditions.checkArgument(width >= 0, "Width cannot be negative");
+        if (width > MAX_CACHED_WIDTH) {
+            return String.valueOf(this.character).repeat(width);
+        }
+
+        String[] table = WHITESPACES.get(this.character);
+        if (table == null || width >= table.length) {
+            table = WHITESPACES.compute(this.character, (character, currentTable) -> extendTable(character, currentTable, width));
+        }
+        return table[width];
+    }
+
+    private static String[] extendTable(char character, String @Nullable [] currentTable, int width) {
+        if (currentTable != null && width < currentTable.length) {
+            return currentTable; // already extended by another thread
+        }
+
+        int from = currentTable == null ? 0 : currentTable.length;
+        int size = Math.min(Math.max(width + 1, Math.max(from << 1, INITIAL_TABLE_SIZE)), MAX_CACHED_WIDTH + 1);
+        String[] table = currentTable == null ? new String[size] : Arrays.copyOf(currentTable, size);
+        for (int i = from; i < size; i++) {
+            table[i] = String.valueOf(character).repeat(i);
+        }
+        return table;
+    }
+
     public String adjustContentFor(ClassNamed enclosingClass) {
         if (enclosingClass.reference() == null) {
-            return this.content.repeat(this.countOccurrences(enclosingClass.dottedNestedName(), '.') + 1);
+            return this.indentation(this.countOccurrences(enclosingClass.dottedNestedName(), '.') + 1);
         }
 
         Class<?> parent = enclosingClass.reference().getEnclosingClass();
@@ -4,12 +4,15 @@ import com.google.common.base.Preconditions;
 import io.papermc.typewriter.context.layout.ImportLayoutMap;
 import org.checkerframework.checker.index.qual.NonNegative;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.framework.qual.DefaultQualifier;
 import org.jetbrains.annotations.Contract;
 
 import java.nio.file.Path;
 import java.util.Collections;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.function.UnaryOperator;
 
 /**
@@ -19,9 +22,12 @@ import java.util.function.UnaryOperator;
  * @param indentUnit the default indent unit used if no one is found in the source file
  * @param classpath the targeted classpath to resolve class reference
  * @param javaVersion the version of java the generated code must be compliant to
+ * @param outputCache the directory where the content generated by the rewriters declaring a fingerprint is cached
+ * @param executor the executor running the parallel inserts, when absent they run on the calling thread
+ * @param dryRun {@code true} if the rewriters must leave the disk untouched, the output cache is then only read
  */
 @DefaultQualifier(NonNull.class)
-public record SourcesMetadata(ImportLayoutMap importLayoutMap, IndentUnit indentUnit, Set<Path> classpath, @NonNegative int javaVersion) {
+public record SourcesMetadata(ImportLayoutMap importLayoutMap, IndentUnit indentUnit, Set<Path> classpath, @NonNegative int javaVersion, Optional<Path> outputCache, Optional<Executor> executor, boolean dryRun) {
 
     /**
      * Constructs a file metadata with a specified indent unit and further
@@ -46,6 +52,18 @@ public record SourcesMetadata(ImportLayoutMap importLayoutMap, IndentUnit indent
         return of(indentUnit, UnaryOperator.identity());
     }
 
+    /**
+     * Gets a copy of this metadata for a dry run.
+     *
+     * @return the metadata of a dry run
+     */
+    public SourcesMetadata asDryRun() {
+        if (this.dryRun) {
+            return this;
+        }
+        return new SourcesMetadata(this.importLayoutMap, this.indentUnit, this.classpath, this.javaVersion, this.outputCache, this.executor, true);
+    }
+
     public boolean canSkipMarkdownDocComments() {
         return Boolean.getBoolean("typewriter.lexer.ignoreMarkdownDocComments") || this.javaVersion < 23;
     }
@@ -56,6 +74,8 @@ public record SourcesMetadata(ImportLayoutMap importLayoutMap, IndentUnit indent
         private ImportLayoutMap layoutMap = ImportLayoutMap.DEFAULT;
         private Set<Path> classpath = Collections.emptySet();
         private int javaVersion = Runtime.version().feature();
+        private @Nullable Path outputCache;
+        private @Nullable Executor executor;
 
         Builder(IndentUnit indentUnit) {
             this.indentUnit = indentUnit;
@@ -80,12 +100,43 @@ public record SourcesMetadata(ImportLayoutMap importLayoutMap, IndentUnit indent
             return this;
         }
 
+        /**
+         * Sets the directory where the content generated by the rewriters
+         * declaring a fingerprint is cached between runs.
+         *
+         * @param directory the cache directory
+         * @return the builder, for chaining
+         * @see io.papermc.typewriter.replace.SearchReplaceRewriter#fingerprint()
+         */
+        @Contract(value = "_ -> this", mutates = "this")
+        public Builder outputCache(Path directory) {
+            this.outputCache = directory;
+            return this;
+        }
+
+        /**
+         * Sets the executor running the parallel inserts. Without executor,
+         * the parallel inserts run one after the other on the calling thread.
+         *
+         * @param executor the executor
+         * @return the builder, for chaining
+         * @see io.papermc.typewriter.replace.ReplaceOptions.Builder#parallelInsert()
+         */
+        @Contract(value = "_ -> this", mutates = "this")
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
         SourcesMetadata complete() {
             return new SourcesMetadata(
                 this.layoutMap,
                 this.indentUnit,
                 this.classpath,
-                this.javaVersion
+                this.javaVersion,
+                Optional.ofNullable(this.outputCache),
+                Optional.ofNullable(this.executor),
+                false
             );
         }
     }
@@ -0,0 +1,31 @@
+package io.papermc.typewriter.parser;
+
+import io.papermc.typewriter.parser.token.Token;
+import io.papermc.typewriter.parser.token.TokenType;
+
+/**
+ * A tokenizer replaying the tokens of a {@link TokenCache}, each instance
+ * keeps its own position so multiple passes can share the same cache.
+ */
+public final class CachedTokenizer implements Tokenizer {
+
+    private final TokenCache cache;
+    private int index;
+
+    CachedTokenizer(TokenCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public Token readToken() {
+        Token token = this.cache.get(this.index);
+        if (token.type() != TokenType.EOI) {
+            this.index++;
+        }
+        return token;
+    }
+
+    public TokenCache getCache() {
+        return this.cache;
+    }
+}
@@ -0,0 +1,76 @@
+package io.papermc.typewriter.parser;
+
+import io.papermc.typewriter.parser.token.TokenType;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+// precomputed classification of the ASCII range, other code points go through Character
+final class CharTable {
+
+    static final int SIZE = 128;
+
+    private static final byte IDENTIFIER_START = 1;
+    private static final byte IDENTIFIER_PART = 1 << 1;
+    private static final byte IDENTIFIER_IGNORABLE = 1 << 2;
+    private static final byte SPACE = 1 << 3;
+
+    private static final byte[] FLAGS = new byte[SIZE];
+    private static final @Nullable TokenType[] PUNCTUATIONS = new TokenType[SIZE];
+
+    static {
+        for (int c = 0; c < SIZE; c++) {
+            byte flags = 0;
+            if (Character.isJavaIdentifierStart(c)) {
+                flags |= IDENTIFIER_START;
+            }
+            if (Character.isJavaIdentifierPart(c)) {
+                flags |= IDENTIFIER_PART;
+            }
+            if (Character.isIdentifierIgnorable(c)) {
+                flags |= IDENTIFIER_IGNORABLE;
+            }
+            FLAGS[c] = flags;
+        }
+
+        FLAGS[' '] |= SPACE;
+        FLAGS['\t'] |= SPACE;
+        FLAGS['\f'] |= SPACE;
+
+        for (TokenType type : TokenType.values()) {
+            if (type.value != null && type.value.length() == 1) {
+                PUNCTUATIONS[type.value.charAt(0)] = type;
+            }
+        }
+    }
+
+    static boolean isIdentifierStart(int code) {
+        if (code < SIZE) {
+            return (FLAGS[code] & IDENTIFIER_START) != 0;
+        }
+        return Character.isJavaIdentifierStart(code);
+    }
+
+    static boolean isIdentifierPart(int code) {
+        if (code < SIZE) {
+            return (FLAGS[code] & IDENTIFIER_PART) != 0;
+        }
+        return Character.isJavaIdentifierPart(code);
+    }
+
+    static boolean isIdentifierIgnorable(int code) {
+        if (code < SIZE) {
+            return (FLAGS[code] & IDENTIFIER_IGNORABLE) != 0;
+        }
+        return Character.isIdentifierIgnorable(code);
+    }
+
+    static boolean isSpace(char c) {
+        return c < SIZE && (FLAGS[c] & SPACE) != 0;
+    }
+
+    static @Nullable TokenType punctuation(char c) {
+        return c < SIZE ? PUNCTUATIONS[c] : null;
+    }
+
+    private CharTable() {
+    }
+}
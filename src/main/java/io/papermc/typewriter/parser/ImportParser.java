@@ -5,17 +5,16 @@ import io.papermc.typewriter.context.ImportCategory;
 import io.papermc.typewriter.context.ImportCollector;
 import io.papermc.typewriter.context.ImportNameCollector;
 import io.papermc.typewriter.parser.name.ProtoImportName;
-import io.papermc.typewriter.parser.sequence.SequenceTokens;
+import io.papermc.typewriter.parser.sequence.TokenGrammar;
 import io.papermc.typewriter.parser.sequence.TokenTaskBuilder;
-import io.papermc.typewriter.parser.sequence.hook.HookType;
 import io.papermc.typewriter.parser.token.PrintableToken;
 import io.papermc.typewriter.parser.token.TokenType;
 import io.papermc.typewriter.parser.token.pos.TokenCapture;
 import io.papermc.typewriter.parser.token.pos.TokenRecorder;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
 
 import java.util.EnumSet;
 import java.util.Set;
-import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 public final class ImportParser {
@@ -27,51 +26,75 @@ public final class ImportParser {
         TokenType.MARKDOWN_JAVADOC
     );
 
-    public static void collectImports(Tokenizer tokenizer, ImportCollector collector, SourceFile source) {
-        SequenceTokens.wrap(tokenizer, FORMAT_TOKENS)
-            .skipIdentifier(Predicate.isEqual(Keywords.PACKAGE), action -> { // package <qualified name>;
-                action.skipQualifiedName().skip(TokenType.SECO);
-            }, TokenTaskBuilder::asOptional) // for default package
-            .skipIdentifier(Predicate.isEqual(Keywords.IMPORT), action -> {
-                ProtoImportName protoName = new ProtoImportName();
+    private static final TokenGrammar<ImportContext> COLLECT_IMPORTS = TokenGrammar.<ImportContext>builder(FORMAT_TOKENS)
+        .skipIdentifier(Predicate.isEqual(Keywords.PACKAGE), action -> { // package <qualified name>;
+            action.skipQualifiedName().skip(TokenType.SECO);
+        }, TokenTaskBuilder::asOptional) // for default package
+        .mapIdentifier(Predicate.isEqual(Keywords.IMPORT), (context, token) -> context.protoName = new ProtoImportName(), action -> {
                 action
-                    .mapIdentifier(Predicate.isEqual(Keywords.STATIC), stat -> protoName.asCategory(ImportCategory.STATIC), TokenTaskBuilder::asOptional)
+                    .mapIdentifier(Predicate.isEqual(Keywords.STATIC), (context, stat) -> context.protoName.asCategory(ImportCategory.STATIC), TokenTaskBuilder::asOptional)
                     .mapQualifiedName(
-                        name -> protoName.append(name.value()),
-                        dot -> protoName.appendSeparator(),
+                        (context, name) -> context.protoName.append(name.value()),
+                        (context, dot) -> context.protoName.appendSeparator(),
                         partialAction -> partialAction
-                            .map(TokenType.STAR, star -> {
-                                protoName.append(TokenType.STAR.value);
-                                protoName.asWildcard();
+                            .map(TokenType.STAR, (context, star) -> {
+                                context.protoName.append(TokenType.STAR.value);
+                                context.protoName.asWildcard();
                             })
                     )
-                    .map(TokenType.SECO, $ -> {
-                        ((ImportNameCollector) collector).addProtoImport(protoName);
+                    .map(TokenType.SECO, (context, $) -> {
+                        ((ImportNameCollector) context.collector).addProtoImport(context.protoName);
                     });
-                },
-                params -> params.asOptional().asRepeatable()
-            )
-            .executeOrThrow((failedTask, token) -> failedTask.createFailure("Wrong token found while collecting imports", token).withAdditionalContext(source));
-    }
+            },
+            params -> params.asOptional().asRepeatable()
+        )
+        .build();
 
-    public static TokenCapture trackImportPosition(Tokenizer tokenizer) {
-        TokenRecorder.Default<PrintableToken> tokenPos = TokenRecorder.BETWEEN_TOKEN.record();
-        SequenceTokens.wrap(tokenizer, FORMAT_TOKENS)
-            .skipIdentifier(Predicate.isEqual(Keywords.PACKAGE), action -> { // package <qualified name>;
-                action.skipQualifiedName().skip(TokenType.SECO);
-            }, TokenTaskBuilder::asOptional) // for default package
-            .skipIdentifier(Predicate.isEqual(Keywords.IMPORT), action -> {
+    private static final TokenGrammar<ImportSection> TRACK_IMPORT_POSITION = TokenGrammar.<ImportSection>builder(FORMAT_TOKENS)
+        .skipIdentifier(Predicate.isEqual(Keywords.PACKAGE), action -> { // package <qualified name>;
+            action.skipQualifiedName().skip(TokenType.SECO);
+        }, TokenTaskBuilder::asOptional) // for default package
+        .mapIdentifier(Predicate.isEqual(Keywords.IMPORT), ImportSection::begin, action -> {
                 action
                     .skipIdentifier(Predicate.isEqual(Keywords.STATIC), TokenTaskBuilder::asOptional)
-                    .skipQualifiedName((Consumer<SequenceTokens>) (partialAction) -> partialAction.skip(TokenType.STAR))
-                    .map(TokenType.SECO, tokenPos::end);
-                },
-                params -> params.asOptional().asRepeatable().hooks(manager -> {
-                    manager.bind(HookType.FIRST, hook -> hook.pre(tokenPos::begin));
-                })
-            )
-            .executeOrThrow((failedTask, token) -> failedTask.createFailure("Wrong token found while tracking import section position", token));
-        return tokenPos.fetch();
+                    .skipQualifiedName(partialAction -> partialAction.skip(TokenType.STAR))
+                    .map(TokenType.SECO, (context, token) -> context.position.end(token));
+            },
+            params -> params.asOptional().asRepeatable()
+        )
+        .build();
+
+    public static void collectImports(Tokenizer tokenizer, ImportCollector collector, SourceFile source) {
+        COLLECT_IMPORTS.executeOrThrow(tokenizer, new ImportContext(collector), (failedTask, token) -> failedTask.createFailure("Wrong token found while collecting imports", token).withAdditionalContext(source));
+    }
+
+    public static TokenCapture trackImportPosition(Tokenizer tokenizer) {
+        ImportSection section = new ImportSection();
+        TRACK_IMPORT_POSITION.executeOrThrow(tokenizer, section, (failedTask, token) -> failedTask.createFailure("Wrong token found while tracking import section position", token));
+        return section.position.fetch();
+    }
+
+    private static final class ImportContext {
+
+        private final ImportCollector collector;
+        private @MonotonicNonNull ProtoImportName protoName;
+
+        private ImportContext(ImportCollector collector) {
+            this.collector = collector;
+        }
+    }
+
+    private static final class ImportSection {
+
+        private final TokenRecorder.Default<PrintableToken> position = TokenRecorder.BETWEEN_TOKEN.record();
+        private boolean started;
+
+        private void begin(PrintableToken token) {
+            if (!this.started) {
+                this.position.begin(token);
+                this.started = true;
+            }
+        }
     }
 
     private ImportParser() {
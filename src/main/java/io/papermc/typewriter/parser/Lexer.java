@@ -16,15 +16,18 @@ import java.io.CharArrayWriter;
 import java.io.IOException;
 import java.io.Reader;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Set;
 
 public class Lexer extends UnicodeTranslator implements Tokenizer {
 
+    private static final char[] EMPTY_INPUT = new char[0];
+    private static final ThreadLocal<Lexer> CACHED = ThreadLocal.withInitial(() -> new Lexer(EMPTY_INPUT));
+
     private final StringBuilder buffer; // generic buffer for single line element or used as temporary storage before being pushed into line buffer
     private final List<String> lineBuffer; // line buffer for multi line block
-    private RelativeTextBlock textBlock; // text block support
+    private final RelativeTextBlock textBlock; // text block support
+    private boolean acquired;
 
     // toggleable features
     public boolean checkMarkdownDocComments = true;
@@ -33,27 +36,75 @@ public class Lexer extends UnicodeTranslator implements Tokenizer {
         super(input);
         this.buffer = new StringBuilder();
         this.lineBuffer = new ArrayList<>(5);
+        this.textBlock = new RelativeTextBlock();
+    }
+
+    public static Lexer fromReader(Reader reader) throws IOException {
+        return new Lexer(readFully(reader));
+    }
+
+    public static char[] readFully(Reader reader) throws IOException { // might find a better way maybe more lazy too
+        CharArrayWriter w = new CharArrayWriter(8192);
+        char[] chunk = new char[8192];
+        int size;
+        while ((size = reader.read(chunk)) != -1) {
+            w.write(chunk, 0, size);
+        }
+        return w.toCharArray();
+    }
+
+    /**
+     * Gets the lexer cached for the current thread reset with the given input,
+     * its internal buffers are reused from one file to another. The lexer must be
+     * given back with {@link #release()} once the tokens are read. A nested
+     * acquisition on the same thread gets a fresh lexer instead.
+     *
+     * @param input the new input
+     * @return the lexer
+     */
+    public static Lexer acquire(char[] input) {
+        Lexer lexer = CACHED.get();
+        if (lexer.acquired) {
+            lexer = new Lexer(input);
+        } else {
+            lexer.reset(input);
+            lexer.checkMarkdownDocComments = true;
+        }
+        lexer.acquired = true;
+        return lexer;
     }
 
-    public static Lexer fromReader(Reader reader) throws IOException { // might find a better way maybe more lazy too
-        CharArrayWriter w = new CharArrayWriter(2048);
-        int code;
-        while ((code = reader.read()) != -1) {
-            w.append((char) code);
+    public void release() {
+        if (this.acquired) {
+            this.acquired = false;
+            this.reset(EMPTY_INPUT); // don't hold the last file
         }
-        return new Lexer(w.toCharArray());
+    }
+
+    /**
+     * Resets this lexer to read a new input from the start,
+     * toggleable features are kept as is.
+     *
+     * @param input the new input
+     */
+    @Override
+    public void reset(char[] input) {
+        super.reset(input);
+        this.buffer.setLength(0);
+        this.lineBuffer.clear();
+        this.textBlock.reset();
     }
 
     // keyword/var/type name etc.
     private void readIdentifier() {
         while (this.canRead()) {
             int code = this.peekPoint();
-            if (Character.isIdentifierIgnorable(code)) {
+            if (CharTable.isIdentifierIgnorable(code)) {
                 this.incrCursor();
                 continue;
             }
 
-            if (!Character.isJavaIdentifierPart(code)) {
+            if (!CharTable.isIdentifierPart(code)) {
                 break;
             }
 
@@ -173,18 +224,26 @@ public class Lexer extends UnicodeTranslator implements Tokenizer {
         private final List<TextLine> lines = new ArrayList<>();
 
         private EscapeType currentEscapeType = EscapeType.NONE;
-        private final Set<Integer> spaceEscapes = new HashSet<>();
+        private final BitSet spaceEscapes = new BitSet(); // reused across lines, no boxing
 
         private final StringBuilder longLine = new StringBuilder();
 
-        private Integer leadingIndent;
+        private int leadingIndent = -1; // unknown until a non blank line is found
+
+        public void reset() {
+            this.lines.clear();
+            this.currentEscapeType = EscapeType.NONE;
+            this.spaceEscapes.clear();
+            this.longLine.setLength(0);
+            this.leadingIndent = -1;
+        }
 
         public void notifyEscape(EscapeType type) {
             this.currentEscapeType = type;
         }
 
         public void notifySpaceEscapeAt(int pos) { // \s \t \f
-            this.spaceEscapes.add(pos);
+            this.spaceEscapes.set(pos);
         }
 
         public void add(String line) { // regular escape are already translated
@@ -192,13 +251,13 @@ public class Lexer extends UnicodeTranslator implements Tokenizer {
 
             // compute leading indent
             int i;
-            for (i = 0; i < size && !this.spaceEscapes.contains(i) && Lexer.this.isSpace(line.charAt(i)); i++) {
+            for (i = 0; i < size && !this.spaceEscapes.get(i) && Lexer.this.isSpace(line.charAt(i)); i++) {
             }
 
             if (i != size || this.currentEscapeType == EscapeType.NEW_LINE) {
                 // ignore blank line (since new line escape is cut before that make sure it's not considered as blank
                 // space escape are already not considered as blank with the spaceEscapes list)
-                if (this.leadingIndent == null) {
+                if (this.leadingIndent == -1) {
                     this.leadingIndent = i;
                 } else {
                     this.leadingIndent = Math.min(i, this.leadingIndent);
@@ -208,7 +267,7 @@ public class Lexer extends UnicodeTranslator implements Tokenizer {
             // compute trailing indent
             int effectiveSize = size; // line size without trailing indent
             if (this.currentEscapeType == EscapeType.NONE) {
-                for (i = size - 1; i >= 0 && !this.spaceEscapes.contains(i) && Lexer.this.isSpace(line.charAt(i)); i--) {
+                for (i = size - 1; i >= 0 && !this.spaceEscapes.get(i) && Lexer.this.isSpace(line.charAt(i)); i--) {
                     effectiveSize--;
                 }
             }
@@ -220,14 +279,15 @@ public class Lexer extends UnicodeTranslator implements Tokenizer {
         }
 
         public void getIn(List<String> output) {
+            int leadingIndent = Math.max(this.leadingIndent, 0); // -1 when there are only blank lines
             for (TextLine line : this.lines) {
                 if (line.escapeType() == EscapeType.NEW_LINE) {
-                    line.addTo(this.longLine, this.leadingIndent);
+                    line.addTo(this.longLine, leadingIndent);
                 } else {
                     if (this.longLine.isEmpty()) {
-                        output.add(line.get(this.leadingIndent));
+                        output.add(line.get(leadingIndent));
                     } else {
-                        line.addTo(this.longLine, this.leadingIndent);
+                        line.addTo(this.longLine, leadingIndent);
                         output.add(this.longLine.toString());
                         this.longLine.delete(0, this.longLine.length());
                     }
@@ -250,6 +310,7 @@ public class Lexer extends UnicodeTranslator implements Tokenizer {
 
             this.incrCursor();
             this.appendLiteral(c, null);
+            this.appendRun(this.buffer, '"');
         }
     }
 
@@ -269,7 +330,7 @@ public class Lexer extends UnicodeTranslator implements Tokenizer {
         } else {
             throw new LexerException("Expect a new line after paragraph open delimiter", this);
         }
-        this.textBlock = new RelativeTextBlock();
+        this.textBlock.reset();
 
         while (this.canRead()) {
             char c = this.peek();
@@ -287,6 +348,7 @@ public class Lexer extends UnicodeTranslator implements Tokenizer {
             } else {
                 this.incrCursor();
                 this.appendLiteral(c, this.textBlock);
+                this.appendRun(this.buffer, '"');
             }
         }
     }
@@ -301,6 +363,7 @@ public class Lexer extends UnicodeTranslator implements Tokenizer {
 
             this.buffer.append(c);
             this.incrCursor();
+            this.appendRun(this.buffer, '\n');
         }
     }
 
@@ -337,6 +400,7 @@ public class Lexer extends UnicodeTranslator implements Tokenizer {
 
             this.buffer.append(c);
             this.incrCursor();
+            this.appendRun(this.buffer, '\n');
         }
     }
 
@@ -374,6 +438,7 @@ public class Lexer extends UnicodeTranslator implements Tokenizer {
 
             this.buffer.append(c);
             this.incrCursor();
+            this.appendRun(this.buffer, '*');
         }
     }
 
@@ -381,7 +446,7 @@ public class Lexer extends UnicodeTranslator implements Tokenizer {
 
      */
     private void readComment() {
-        this.textBlock = new RelativeTextBlock();
+        this.textBlock.reset();
         boolean firstLine = true;
         while (this.canRead()) {
             if (match("*/")) {
@@ -406,6 +471,7 @@ public class Lexer extends UnicodeTranslator implements Tokenizer {
 
             this.buffer.append(c);
             this.incrCursor();
+            this.appendRun(this.buffer, '*');
         }
     }
 
@@ -434,12 +500,20 @@ public class Lexer extends UnicodeTranslator implements Tokenizer {
                 // either create the first token pos or override the current one, might happen for incomplete tokens i.e. a/b (ID, start of (doc)comment, ID)
             }
             char c = this.peek();
+            TokenType punctuation = CharTable.punctuation(c);
+            if (punctuation != null) {
+                type = punctuation;
+                singlePos = snapshot.take(this);
+                this.incrCursor();
+                break;
+            }
+
+            if (CharTable.isSpace(c)) {
+                this.incrCursor();
+                continue;
+            }
+
             switch (c) {
-                case ' ':
-                case '\t':
-                case '\f':
-                    this.incrCursor();
-                    break;
                 case '\n':
                     this.incrCursor();
                     this.visitLineTerminator();
@@ -499,73 +573,8 @@ public class Lexer extends UnicodeTranslator implements Tokenizer {
                         this.readString();
                     }
                     break loop;
-                case '(':
-                    type = TokenType.LPAREN;
-                    singlePos = snapshot.take(this);
-                    this.incrCursor();
-                    break loop;
-                case ')':
-                    type = TokenType.RPAREN;
-                    singlePos = snapshot.take(this);
-                    this.incrCursor();
-                    break loop;
-                case '{':
-                    type = TokenType.LSCOPE;
-                    singlePos = snapshot.take(this);
-                    this.incrCursor();
-                    break loop;
-                case '}':
-                    type = TokenType.RSCOPE;
-                    singlePos = snapshot.take(this);
-                    this.incrCursor();
-                    break loop;
-                case '[':
-                    type = TokenType.LBRACKET;
-                    singlePos = snapshot.take(this);
-                    this.incrCursor();
-                    break loop;
-                case ']':
-                    type = TokenType.RBRACKET;
-                    singlePos = snapshot.take(this);
-                    this.incrCursor();
-                    break loop;
-                case '<':
-                    type = TokenType.LT;
-                    singlePos = snapshot.take(this);
-                    this.incrCursor();
-                    break loop;
-                case '>':
-                    type = TokenType.GT;
-                    singlePos = snapshot.take(this);
-                    this.incrCursor();
-                    break loop;
-                case '@':
-                    type = TokenType.AT_SIGN;
-                    singlePos = snapshot.take(this);
-                    this.incrCursor();
-                    break loop;
-                case '*':
-                    type = TokenType.STAR;
-                    singlePos = snapshot.take(this);
-                    this.incrCursor();
-                    break loop;
-                case '.':
-                    type = TokenType.DOT;
-                    singlePos = snapshot.take(this);
-                    this.incrCursor();
-                    break loop;
-                case ',':
-                    type = TokenType.CO;
-                    singlePos = snapshot.take(this);
-                    this.incrCursor();
-                    break loop;
-                case ';':
-                    type = TokenType.SECO;
-                    singlePos = snapshot.take(this);
-                    this.incrCursor();
-                    break loop;
                 default:
-                    if (Character.isJavaIdentifierStart(this.peekPoint())) {
+                    if (CharTable.isIdentifierStart(this.peekPoint())) {
                         type = TokenType.IDENTIFIER;
                         tokenPos.begin();
                         this.appendCodePoint();
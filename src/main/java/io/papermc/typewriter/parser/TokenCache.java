@@ -0,0 +1,99 @@
+package io.papermc.typewriter.parser;
+
+import io.papermc.typewriter.parser.token.Token;
+import io.papermc.typewriter.parser.token.TokenType;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Records the token stream of a buffer into an array as it gets read so it
+ * can be replayed later by any tokenizer consumer through {@link #replay()}.
+ * Tokens are only read from the source when a replay goes further than what has
+ * already been recorded.
+ * <br>
+ * A cache is bound to its content, which must not be modified afterward,
+ * and can be checked against another buffer with {@link #isValidFor(char[])}.
+ */
+public final class TokenCache {
+
+    private final char[] content;
+    private @Nullable Tokenizer source; // null once the end of input is reached
+    private Token[] tokens = new Token[64];
+    private int size;
+
+    private TokenCache(char[] content, Tokenizer source) {
+        this.content = content;
+        this.source = source;
+    }
+
+    /**
+     * Creates a token cache for a content using the tokenizer specified.
+     *
+     * @param content the content
+     * @param source the tokenizer of the content, must not be read elsewhere
+     * @return the token cache
+     */
+    public static TokenCache of(char[] content, Tokenizer source) {
+        return new TokenCache(content, source);
+    }
+
+    /**
+     * Creates a token cache for a content using a regular lexer.
+     *
+     * @param content the content
+     * @return the token cache
+     */
+    public static TokenCache lex(char[] content) {
+        return of(content, new Lexer(content));
+    }
+
+    Token get(int index) {
+        while (index >= this.size && this.source != null) {
+            Token token = this.source.readToken();
+            if (token.type() == TokenType.EOI) {
+                this.source = null;
+                break;
+            }
+
+            if (this.size == this.tokens.length) {
+                this.tokens = Arrays.copyOf(this.tokens, this.size << 1);
+            }
+            this.tokens[this.size++] = token;
+        }
+
+        return index < this.size ? this.tokens[index] : Token.END_OF_INPUT;
+    }
+
+    /**
+     * Creates a new tokenizer reading this cache from the start.
+     *
+     * @return the tokenizer
+     */
+    public CachedTokenizer replay() {
+        return new CachedTokenizer(this);
+    }
+
+    /**
+     * Checks if the recorded tokens are still valid for a content.
+     *
+     * @param content the content
+     * @return {@code true} if the content is the same as the one used for this cache
+     */
+    public boolean isValidFor(char[] content) {
+        return Arrays.equals(content, this.content);
+    }
+
+    /**
+     * Gets the number of tokens recorded so far.
+     *
+     * @return the number of tokens
+     */
+    public int size() {
+        return this.size;
+    }
+
+    public char[] content() {
+        return this.content;
+    }
+}
@@ -3,7 +3,7 @@ package io.papermc.typewriter.parser;
 import io.papermc.typewriter.parser.exception.LexerException;
 
 public abstract class UnicodeTranslator {
-    private final char[] input;
+    private char[] input;
 
     protected int charSize = 1; // char size representation in the buffer (size of the escape), surrogate pair are handled
     protected final char[] codePointCache = new char[2]; // code point cache holding character representation of the code point, limited to 2
@@ -16,6 +16,14 @@ public abstract class UnicodeTranslator {
         this.input = input;
     }
 
+    protected void reset(char[] input) {
+        this.input = input;
+        this.charSize = 1;
+        this.cursor = 0;
+        this.column = 0;
+        this.row = 1;
+    }
+
     protected boolean match(char c) {
         if (this.canRead() && this.peek() == c) {
             this.incrCursor();
@@ -53,6 +61,26 @@ public abstract class UnicodeTranslator {
         this.column++;
     }
 
+    // copy the run of plain characters ahead (stopping before any escape, line terminator or stop char) at once
+    protected void appendRun(StringBuilder builder, char stop) {
+        final char[] input = this.input;
+        int end = this.cursor;
+        for (int length = input.length; end < length; end++) {
+            char c = input[end];
+            if (c == '\\' || c == '\n' || c == '\r' || c == stop) {
+                break;
+            }
+        }
+
+        int size = end - this.cursor;
+        if (size > 0) {
+            builder.append(input, this.cursor, size);
+            this.cursor = end;
+            this.column += size;
+            this.charSize = 1;
+        }
+    }
+
     protected char read() {
         if (!this.canRead()) {
             throw new LexerException("Expected to read a new character", this);
@@ -1,108 +1,82 @@
 package io.papermc.typewriter.parser.iterator;
 
+import com.google.common.base.Preconditions;
 import io.papermc.typewriter.parser.Tokenizer;
 import io.papermc.typewriter.parser.token.Token;
 import io.papermc.typewriter.parser.token.TokenType;
-import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.NoSuchElementException;
 
+/**
+ * A navigable iterator only keeping the last read tokens in a fixed ring buffer,
+ * going back further than the lookbehind is not allowed.
+ */
 public class NavigableBufferToken {
 
     private final Tokenizer tokenizer;
-    private final List<Token> buffer;
-    private final int size;
-    private int index;
+    private final Token[] buffer;
+    private int index; // absolute position of the cursor
+    private int size; // absolute count of the read tokens
+    private boolean reachedEnd;
 
-    public NavigableBufferToken(Tokenizer tokenizer, int size) {
+    public NavigableBufferToken(Tokenizer tokenizer, int lookbehind) {
+        Preconditions.checkArgument(lookbehind > 0, "Lookbehind must be positive");
         this.tokenizer = tokenizer;
-        this.size = size;
-        this.buffer = new ArrayList<>(size);
+        this.buffer = new Token[lookbehind + 1];
     }
 
     public boolean hasPrevious() {
-        return this.index > 0 && !this.buffer.isEmpty();
+        return this.index > 0 && this.index > this.size - this.buffer.length;
     }
 
-    private @Nullable Token getToken(boolean forward) {
-        int nextIndex = forward ? this.index : this.index - 1;
-        return nextIndex >= this.buffer.size() ? null : this.buffer.get(nextIndex);
-    }
-
-    private void updateBuffer(boolean forward, @Nullable Token token) {
-        if (token != null && token.type() == TokenType.EOI) {
-            return;
+    public boolean hasNext() {
+        if (this.index < this.size) {
+            return true;
         }
-
-        if (this.index >= this.size) {
-            if (forward) {
-                this.buffer.removeFirst();
-                this.index--;
-            } else {
-                this.buffer.removeLast();
-            }
+        if (this.reachedEnd) {
+            return false;
         }
 
-        if (forward && token != null) {
-            this.buffer.addLast(token);
+        Token token = this.tokenizer.readToken();
+        if (token.type() == TokenType.EOI) {
+            this.reachedEnd = true;
+            return false;
         }
-    }
 
-    public boolean hasNext() {
-        Token nextToken = this.getToken(true);
-        if (nextToken == null) {
-            nextToken = this.tokenizer.readToken();
-            this.updateBuffer(true, nextToken);
-        }
-        return nextToken.type() != TokenType.EOI;
+        this.buffer[this.size % this.buffer.length] = token;
+        this.size++;
+        return true;
     }
 
     public Token next() {
-        return this.next0(true);
-    }
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
 
-    public Token peekNext() {
-        return this.next0(false);
+        return this.buffer[this.index++ % this.buffer.length];
     }
 
-    public Token previous() {
-        return this.previous0(true);
-    }
+    public Token peekNext() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
 
-    public Token peekPrevious() {
-        return this.previous0(false);
+        return this.buffer[this.index % this.buffer.length];
     }
 
-    private Token next0(boolean updateCursor) {
-        if (!this.hasNext()) {
+    public Token previous() {
+        if (!this.hasPrevious()) {
             throw new NoSuchElementException();
         }
 
-        Token token = this.getToken(true);
-        if (token == null) {
-            token = this.tokenizer.readToken();
-            this.updateBuffer(true, token);
-        }
-        if (updateCursor) {
-            this.index++;
-        }
-        return token;
+        return this.buffer[--this.index % this.buffer.length];
     }
 
-    private Token previous0(boolean updateCursor) {
+    public Token peekPrevious() {
         if (!this.hasPrevious()) {
             throw new NoSuchElementException();
         }
 
-        Token token = this.getToken(false);
-        if (token == null) {
-            this.updateBuffer(false, null);
-        }
-        if (updateCursor) {
-            this.index--;
-        }
-        return token;
+        return this.buffer[(this.index - 1) % this.buffer.length];
     }
 }
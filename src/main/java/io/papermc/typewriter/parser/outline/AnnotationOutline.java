@@ -0,0 +1,25 @@
+package io.papermc.typewriter.parser.outline;
+
+/**
+ * An annotation used on a declaration.
+ *
+ * @param name the name as written in the file, simple or qualified
+ * @param span the span from the at sign to the end of the annotation
+ */
+public record AnnotationOutline(String name, Span span) {
+
+    /**
+     * Checks if this annotation could refer to the name specified.
+     *
+     * @param name the simple or qualified name of the annotation
+     * @return {@code true} if the name matches
+     */
+    public boolean matches(String name) {
+        if (this.name.equals(name)) {
+            return true;
+        }
+
+        int separatorIndex = name.length() - this.name.length() - 1;
+        return separatorIndex > 0 && name.charAt(separatorIndex) == '.' && name.endsWith(this.name);
+    }
+}
@@ -0,0 +1,37 @@
+package io.papermc.typewriter.parser.outline;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+import java.util.List;
+
+/**
+ * A member declared in a type body.
+ *
+ * @param kind the kind of member
+ * @param name the name of the member, empty for initializers
+ * @param annotations the annotations of the member
+ * @param javadoc the span of the javadoc if present
+ * @param span the span of the declaration (annotations included, javadoc excluded)
+ */
+@DefaultQualifier(NonNull.class)
+public record MemberOutline(Kind kind, String name, List<AnnotationOutline> annotations, @Nullable Span javadoc, Span span) {
+
+    public boolean isAnnotatedWith(String annotationName) {
+        for (AnnotationOutline annotation : this.annotations) {
+            if (annotation.matches(annotationName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public enum Kind {
+        FIELD,
+        METHOD,
+        CONSTRUCTOR,
+        ENUM_CONSTANT,
+        INITIALIZER
+    }
+}
@@ -0,0 +1,435 @@
+package io.papermc.typewriter.parser.outline;
+
+import io.papermc.typewriter.parser.Keywords;
+import io.papermc.typewriter.parser.Tokenizer;
+import io.papermc.typewriter.parser.token.CharSequenceToken;
+import io.papermc.typewriter.parser.token.PrintableToken;
+import io.papermc.typewriter.parser.token.Token;
+import io.papermc.typewriter.parser.token.TokenType;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// single pass over the tokens, bodies and initializers are skipped by counting their delimiters
+@DefaultQualifier(NonNull.class)
+final class OutlineParser {
+
+    private final char[] content;
+    private final Tokenizer tokenizer;
+
+    private @Nullable PrintableToken peeked;
+    private boolean reachedEnd;
+    private int peekedGapStart; // end of the token (comments included) before the peeked one
+    private int rawEnd;
+    private int lastEnd; // end of the last consumed token
+    private @Nullable Span javadoc;
+
+    OutlineParser(char[] content, Tokenizer tokenizer) {
+        this.content = content;
+        this.tokenizer = tokenizer;
+    }
+
+    List<TypeOutline> parse() {
+        List<TypeOutline> types = new ArrayList<>();
+        List<MemberOutline> members = new ArrayList<>(0); // not expected outside of a type
+        PrintableToken token;
+        while ((token = this.peek()) != null) {
+            if (token.type() == TokenType.RSCOPE) {
+                this.next();
+                continue;
+            }
+
+            if (token.type() == TokenType.IDENTIFIER) {
+                String value = ((CharSequenceToken) token).value();
+                if (value.equals(Keywords.PACKAGE) || value.equals(Keywords.IMPORT)) {
+                    this.skipStatement();
+                    continue;
+                }
+            }
+            this.parseDeclaration(null, members, types);
+        }
+        return List.copyOf(types);
+    }
+
+    private @Nullable PrintableToken peek() {
+        if (this.peeked != null || this.reachedEnd) {
+            return this.peeked;
+        }
+
+        while (true) {
+            Token token = this.tokenizer.readToken();
+            if (token.type() == TokenType.EOI) {
+                this.reachedEnd = true;
+                return null;
+            }
+
+            PrintableToken printable = (PrintableToken) token;
+            int gapStart = this.rawEnd;
+            this.rawEnd = printable.endPos();
+            switch (printable.type()) {
+                case JAVADOC, MARKDOWN_JAVADOC -> this.javadoc = new Span(printable.pos(), printable.endPos());
+                case COMMENT, SINGLE_COMMENT -> {
+                }
+                default -> {
+                    this.peeked = printable;
+                    this.peekedGapStart = gapStart;
+                    return printable;
+                }
+            }
+        }
+    }
+
+    private PrintableToken next() {
+        PrintableToken token = this.peek();
+        if (token == null) {
+            throw new IllegalStateException("Reached end of input");
+        }
+
+        this.peeked = null;
+        this.lastEnd = token.endPos();
+        return token;
+    }
+
+    // javadoc found inside a skipped body is not attached to the next declaration
+    private @Nullable Span takeJavadoc() {
+        Span javadoc = this.javadoc;
+        this.javadoc = null;
+        return javadoc != null && javadoc.start() >= this.lastEnd ? javadoc : null;
+    }
+
+    // the lexer doesn't emit tokens for operators so an initializer is only visible between the tokens
+    private boolean assignedBefore(PrintableToken token) {
+        for (int i = this.peekedGapStart; i < token.pos(); i++) {
+            if (this.content[i] == '=') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isIdentifier(@Nullable PrintableToken token, String value) {
+        return token != null && token.type() == TokenType.IDENTIFIER && ((CharSequenceToken) token).value().equals(value);
+    }
+
+    private static TypeOutline.@Nullable Kind typeKind(String keyword) {
+        return switch (keyword) {
+            case "class" -> TypeOutline.Kind.CLASS;
+            case Keywords.INTERFACE -> TypeOutline.Kind.INTERFACE;
+            case "enum" -> TypeOutline.Kind.ENUM;
+            default -> null;
+        };
+    }
+
+    private void parseDeclaration(@Nullable String enclosingName, List<MemberOutline> members, List<TypeOutline> types) {
+        PrintableToken first = this.peek();
+        if (first == null || first.type() == TokenType.RSCOPE) {
+            return;
+        }
+        if (first.type() == TokenType.SECO) {
+            this.next();
+            return;
+        }
+
+        @Nullable Span javadoc = this.takeJavadoc();
+        int start = first.pos();
+        List<AnnotationOutline> annotations = new ArrayList<>(0);
+        List<String> names = new ArrayList<>(1);
+        @Nullable String lastName = null;
+        PrintableToken token;
+        while ((token = this.peek()) != null) {
+            if (lastName != null && this.assignedBefore(token)) {
+                names.add(lastName);
+                lastName = null;
+                if (this.skipInitializer()) {
+                    continue;
+                }
+                this.addFields(names, annotations, javadoc, start, members);
+                return;
+            }
+
+            switch (token.type()) {
+                case AT_SIGN -> {
+                    this.next();
+                    if (isIdentifier(this.peek(), Keywords.INTERFACE)) {
+                        this.next();
+                        this.parseType(TypeOutline.Kind.ANNOTATION, null, annotations, javadoc, start, types);
+                        return;
+                    }
+                    annotations.add(this.parseAnnotation(token));
+                }
+                case IDENTIFIER -> {
+                    String value = ((CharSequenceToken) this.next()).value();
+                    TypeOutline.Kind kind = typeKind(value);
+                    if (kind != null) {
+                        this.parseType(kind, null, annotations, javadoc, start, types);
+                        return;
+                    }
+
+                    PrintableToken nextToken = this.peek();
+                    if (value.equals("record") && nextToken != null && nextToken.type() == TokenType.IDENTIFIER) { // contextual keyword
+                        String name = ((CharSequenceToken) this.next()).value();
+                        nextToken = this.peek();
+                        if (nextToken != null && (nextToken.type() == TokenType.LPAREN || nextToken.type() == TokenType.LT)) {
+                            this.parseType(TypeOutline.Kind.RECORD, name, annotations, javadoc, start, types);
+                            return;
+                        }
+                        value = name;
+                    }
+                    lastName = value;
+                }
+                case LT -> this.skipBalanced(TokenType.LT, TokenType.GT);
+                case LPAREN -> {
+                    this.skipBalanced(TokenType.LPAREN, TokenType.RPAREN);
+                    this.skipMethodBody();
+                    if (lastName != null) {
+                        MemberOutline.Kind kind = lastName.equals(enclosingName) ? MemberOutline.Kind.CONSTRUCTOR : MemberOutline.Kind.METHOD;
+                        members.add(new MemberOutline(kind, lastName, List.copyOf(annotations), javadoc, new Span(start, this.lastEnd)));
+                    }
+                    return;
+                }
+                case LSCOPE -> {
+                    this.skipBalanced(TokenType.LSCOPE, TokenType.RSCOPE);
+                    Span span = new Span(start, this.lastEnd);
+                    if (lastName != null && lastName.equals(enclosingName)) { // compact constructor
+                        members.add(new MemberOutline(MemberOutline.Kind.CONSTRUCTOR, lastName, List.copyOf(annotations), javadoc, span));
+                    } else {
+                        members.add(new MemberOutline(MemberOutline.Kind.INITIALIZER, "", List.copyOf(annotations), javadoc, span));
+                    }
+                    return;
+                }
+                case CO -> {
+                    this.next();
+                    if (lastName != null) {
+                        names.add(lastName);
+                        lastName = null;
+                    }
+                }
+                case SECO -> {
+                    this.next();
+                    if (lastName != null) {
+                        names.add(lastName);
+                    }
+                    this.addFields(names, annotations, javadoc, start, members);
+                    return;
+                }
+                case RSCOPE -> {
+                    return; // unexpected end of the body
+                }
+                default -> this.next();
+            }
+        }
+    }
+
+    private void addFields(List<String> names, List<AnnotationOutline> annotations, @Nullable Span javadoc, int start, List<MemberOutline> members) {
+        Span span = new Span(start, this.lastEnd);
+        List<AnnotationOutline> fieldAnnotations = List.copyOf(annotations);
+        for (String name : names) {
+            members.add(new MemberOutline(MemberOutline.Kind.FIELD, name, fieldAnnotations, javadoc, span));
+        }
+    }
+
+    private void parseType(TypeOutline.Kind kind, @Nullable String knownName, List<AnnotationOutline> annotations, @Nullable Span javadoc, int start, List<TypeOutline> types) {
+        String name = knownName;
+        if (name == null) {
+            PrintableToken nameToken = this.peek();
+            if (nameToken == null || nameToken.type() != TokenType.IDENTIFIER) {
+                return;
+            }
+            name = ((CharSequenceToken) this.next()).value();
+        }
+
+        // type parameters, record components, extends/implements/permits clauses
+        PrintableToken token;
+        while ((token = this.peek()) != null && token.type() != TokenType.LSCOPE) {
+            switch (token.type()) {
+                case LT -> this.skipBalanced(TokenType.LT, TokenType.GT);
+                case LPAREN -> this.skipBalanced(TokenType.LPAREN, TokenType.RPAREN);
+                default -> this.next();
+            }
+        }
+        if (token == null) {
+            return;
+        }
+
+        PrintableToken open = this.next();
+        List<MemberOutline> members = new ArrayList<>();
+        List<TypeOutline> nestedTypes = new ArrayList<>(0);
+        @Nullable Span enumConstants = null;
+        if (kind == TypeOutline.Kind.ENUM) {
+            enumConstants = this.parseEnumConstants(open, members);
+        }
+
+        while ((token = this.peek()) != null && token.type() != TokenType.RSCOPE) {
+            this.parseDeclaration(name, members, nestedTypes);
+        }
+
+        int bodyEnd = this.content.length;
+        if (token != null) {
+            bodyEnd = token.pos();
+            this.next();
+        }
+        types.add(new TypeOutline(
+            kind, name,
+            List.copyOf(annotations), javadoc,
+            new Span(start, this.lastEnd), new Span(open.endPos(), bodyEnd),
+            enumConstants,
+            List.copyOf(members), List.copyOf(nestedTypes)
+        ));
+    }
+
+    private Span parseEnumConstants(PrintableToken open, List<MemberOutline> members) {
+        int start = -1;
+        int end = open.endPos();
+        PrintableToken token;
+        loop:
+        while ((token = this.peek()) != null) {
+            switch (token.type()) {
+                case SECO -> {
+                    this.next();
+                    break loop;
+                }
+                case RSCOPE -> {
+                    break loop;
+                }
+                case CO -> this.next();
+                default -> {
+                    @Nullable Span javadoc = this.takeJavadoc();
+                    int constantStart = token.pos();
+                    List<AnnotationOutline> annotations = new ArrayList<>(0);
+                    while (token != null && token.type() == TokenType.AT_SIGN) {
+                        annotations.add(this.parseAnnotation(this.next()));
+                        token = this.peek();
+                    }
+                    if (token == null) {
+                        break loop;
+                    }
+                    if (token.type() != TokenType.IDENTIFIER) {
+                        this.next();
+                        continue;
+                    }
+
+                    String name = ((CharSequenceToken) this.next()).value();
+                    PrintableToken nextToken = this.peek();
+                    if (nextToken != null && nextToken.type() == TokenType.LPAREN) {
+                        this.skipBalanced(TokenType.LPAREN, TokenType.RPAREN);
+                        nextToken = this.peek();
+                    }
+                    if (nextToken != null && nextToken.type() == TokenType.LSCOPE) {
+                        this.skipBalanced(TokenType.LSCOPE, TokenType.RSCOPE);
+                    }
+
+                    members.add(new MemberOutline(MemberOutline.Kind.ENUM_CONSTANT, name, List.copyOf(annotations), javadoc, new Span(constantStart, this.lastEnd)));
+                    if (start == -1) {
+                        start = constantStart;
+                    }
+                    end = this.lastEnd;
+                }
+            }
+        }
+
+        return start == -1 ? new Span(end, end) : new Span(start, end);
+    }
+
+    // the at sign is already consumed
+    private AnnotationOutline parseAnnotation(PrintableToken atSign) {
+        StringBuilder name = new StringBuilder();
+        boolean expectDot = false;
+        PrintableToken token;
+        while ((token = this.peek()) != null && token.type() == (expectDot ? TokenType.DOT : TokenType.IDENTIFIER)) {
+            if (expectDot) {
+                name.append('.');
+            } else {
+                name.append(((CharSequenceToken) token).value());
+            }
+            expectDot = !expectDot;
+            this.next();
+        }
+
+        if (token != null && token.type() == TokenType.LPAREN) {
+            this.skipBalanced(TokenType.LPAREN, TokenType.RPAREN);
+        }
+        return new AnnotationOutline(name.toString(), new Span(atSign.pos(), this.lastEnd));
+    }
+
+    // return true if another declarator follows
+    private boolean skipInitializer() {
+        int depth = 0;
+        PrintableToken token;
+        while ((token = this.peek()) != null) {
+            switch (token.type()) {
+                case LPAREN, LSCOPE, LBRACKET -> depth++;
+                case RPAREN, RBRACKET -> depth--;
+                case RSCOPE -> {
+                    if (depth == 0) {
+                        return false;
+                    }
+                    depth--;
+                }
+                case CO -> {
+                    if (depth == 0) {
+                        this.next();
+                        return true;
+                    }
+                }
+                case SECO -> {
+                    if (depth == 0) {
+                        this.next();
+                        return false;
+                    }
+                }
+                default -> {
+                }
+            }
+            this.next();
+        }
+        return false;
+    }
+
+    // throws clause and body or semicolon after the parameters
+    private void skipMethodBody() {
+        PrintableToken token;
+        while ((token = this.peek()) != null) {
+            switch (token.type()) {
+                case SECO -> {
+                    this.next();
+                    return;
+                }
+                case LSCOPE -> {
+                    this.skipBalanced(TokenType.LSCOPE, TokenType.RSCOPE);
+                    return;
+                }
+                case RSCOPE -> {
+                    return;
+                }
+                case LPAREN -> this.skipBalanced(TokenType.LPAREN, TokenType.RPAREN);
+                default -> this.next();
+            }
+        }
+    }
+
+    private void skipStatement() {
+        PrintableToken token;
+        while ((token = this.peek()) != null) {
+            this.next();
+            if (token.type() == TokenType.SECO) {
+                return;
+            }
+        }
+    }
+
+    private void skipBalanced(TokenType open, TokenType close) {
+        int depth = 0;
+        PrintableToken token;
+        while ((token = this.peek()) != null) {
+            this.next();
+            if (token.type() == open) {
+                depth++;
+            } else if (token.type() == close && --depth == 0) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.papermc.typewriter.parser.outline;
+
+import io.papermc.typewriter.parser.Lexer;
+import io.papermc.typewriter.parser.Tokenizer;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The outline of a source file: the declared types with their members, annotations and
+ * javadoc spans. Method bodies and initializers are skipped without being looked at,
+ * so local and anonymous classes are not part of the outline.
+ *
+ * @param types the top level types
+ */
+@DefaultQualifier(NonNull.class)
+public record SourceOutline(List<TypeOutline> types) {
+
+    public static final SourceOutline EMPTY = new SourceOutline(List.of());
+
+    public static SourceOutline parse(char[] content) {
+        return parse(content, new Lexer(content));
+    }
+
+    /**
+     * Parses the outline of a content from its tokens.
+     *
+     * @param content the content
+     * @param tokenizer the tokenizer of the content
+     * @return the outline
+     */
+    public static SourceOutline parse(char[] content, Tokenizer tokenizer) {
+        return new SourceOutline(new OutlineParser(content, tokenizer).parse());
+    }
+
+    /**
+     * Finds a type by its nested name (e.g. {@code Outer.Inner}).
+     *
+     * @param nestedName the nested name
+     * @return the type if found
+     */
+    public Optional<TypeOutline> findType(String nestedName) {
+        Optional<TypeOutline> result = Optional.empty();
+        List<TypeOutline> types = this.types;
+        for (String name : nestedName.split("\\.")) {
+            result = Optional.empty();
+            for (TypeOutline type : types) {
+                if (type.name().equals(name)) {
+                    result = Optional.of(type);
+                    break;
+                }
+            }
+
+            if (result.isEmpty()) {
+                break;
+            }
+            types = result.get().types();
+        }
+        return result;
+    }
+}
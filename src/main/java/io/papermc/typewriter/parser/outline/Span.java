@@ -0,0 +1,32 @@
+package io.papermc.typewriter.parser.outline;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * A range of characters in the original content of a file.
+ *
+ * @param start the start offset (inclusive)
+ * @param end the end offset (exclusive)
+ */
+public record Span(int start, int end) {
+
+    public Span {
+        Preconditions.checkArgument(start >= 0 && start <= end, "Invalid span [%s, %s[", start, end);
+    }
+
+    public int length() {
+        return this.end - this.start;
+    }
+
+    public boolean isEmpty() {
+        return this.start == this.end;
+    }
+
+    public boolean contains(Span span) {
+        return this.start <= span.start && span.end <= this.end;
+    }
+
+    public String in(char[] content) {
+        return new String(content, this.start, this.length());
+    }
+}
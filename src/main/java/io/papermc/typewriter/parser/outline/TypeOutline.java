@@ -0,0 +1,55 @@
+package io.papermc.typewriter.parser.outline;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A type declared in a file.
+ *
+ * @param kind the kind of type
+ * @param name the simple name of the type
+ * @param annotations the annotations of the type
+ * @param javadoc the span of the javadoc if present
+ * @param span the span of the declaration (annotations included, javadoc excluded)
+ * @param body the span between the braces of the type body
+ * @param enumConstants the span of the enum constants for enum, empty after the opening brace when there's none
+ * @param members the members in declaration order
+ * @param types the nested types in declaration order
+ */
+@DefaultQualifier(NonNull.class)
+public record TypeOutline(Kind kind, String name, List<AnnotationOutline> annotations, @Nullable Span javadoc, Span span, Span body, @Nullable Span enumConstants, List<MemberOutline> members, List<TypeOutline> types) {
+
+    public List<MemberOutline> members(MemberOutline.Kind kind) {
+        return this.members.stream().filter(member -> member.kind() == kind).toList();
+    }
+
+    public Optional<TypeOutline> findType(String simpleName) {
+        for (TypeOutline type : this.types) {
+            if (type.name().equals(simpleName)) {
+                return Optional.of(type);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public boolean isAnnotatedWith(String annotationName) {
+        for (AnnotationOutline annotation : this.annotations) {
+            if (annotation.matches(annotationName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public enum Kind {
+        CLASS,
+        INTERFACE,
+        ENUM,
+        RECORD,
+        ANNOTATION
+    }
+}
@@ -1,59 +1,50 @@
 package io.papermc.typewriter.parser.sequence;
 
 import io.papermc.typewriter.parser.Tokenizer;
-import io.papermc.typewriter.parser.iterator.NavigableToken;
-import io.papermc.typewriter.parser.sequence.hook.HookType;
 import io.papermc.typewriter.parser.token.CharSequenceToken;
 import io.papermc.typewriter.parser.token.PrintableToken;
-import io.papermc.typewriter.parser.token.Token;
 import io.papermc.typewriter.parser.token.TokenType;
-import javax.lang.model.SourceVersion;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.util.ArrayDeque;
-import java.util.EnumSet;
-import java.util.Queue;
 import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
 
+/**
+ * A one-shot {@link TokenGrammar} bound to a tokenizer: the sequence is compiled
+ * and executed once, the callbacks don't receive any context.
+ */
 public class SequenceTokens {
 
-    private final NavigableToken iterator;
-    private final Set<TokenType> ignoredTokens;
-    private final Queue<TokenTask> expectedTokens = new ArrayDeque<>();
-    private TokenTask failedTask;
+    private final @Nullable Tokenizer tokenizer; // null for sub sequences
+    private final TokenGrammar.Builder<@Nullable Void> grammar;
 
-    private SequenceTokens(SequenceTokens from) {
-        this.iterator = from.iterator;
-        this.ignoredTokens = from.ignoredTokens;
+    private SequenceTokens(@Nullable Tokenizer tokenizer, TokenGrammar.Builder<@Nullable Void> grammar) {
+        this.tokenizer = tokenizer;
+        this.grammar = grammar;
     }
 
-    private SequenceTokens(Tokenizer tokenizer, Set<TokenType> ignoredTokens) {
-        this.iterator = new NavigableToken(tokenizer);
-        this.ignoredTokens = ignoredTokens;
+    private static <T> BiConsumer<@Nullable Void, T> withoutContext(Consumer<T> callback) {
+        return (context, value) -> callback.accept(value);
     }
 
-    private NavigableToken iterator() {
-        return this.iterator;
-    }
-
-    private TokenTask newTask(TokenAction action, UnaryOperator<TokenTaskBuilder> params) {
-        return ((TokenTask.Builder) params.apply(new TokenTask.Builder(action))).build();
-    }
+    private static @Nullable Consumer<TokenGrammar.Builder<@Nullable Void>> subSequence(@Nullable Consumer<SequenceTokens> subAction) {
+        if (subAction == null) {
+            return null;
+        }
 
-    private TokenTask newTask(TokenAction action) {
-        return new TokenTask.Builder(action).build();
+        return builder -> subAction.accept(new SequenceTokens(null, builder));
     }
 
     public static SequenceTokens wrap(Tokenizer tokenizer) {
-        return new SequenceTokens(tokenizer, EnumSet.noneOf(TokenType.class));
+        return new SequenceTokens(tokenizer, TokenGrammar.builder());
     }
 
     public static SequenceTokens wrap(Tokenizer tokenizer, Set<TokenType> ignoredTokens) {
-        return new SequenceTokens(tokenizer, EnumSet.copyOf(ignoredTokens));
+        return new SequenceTokens(tokenizer, TokenGrammar.builder(ignoredTokens));
     }
 
     public SequenceTokens map(TokenType type, Consumer<PrintableToken> callback) {
@@ -65,11 +56,7 @@ public class SequenceTokens {
     }
 
     public SequenceTokens map(TokenType type, Consumer<PrintableToken> callback, @Nullable Consumer<SequenceTokens> subAction, UnaryOperator<TokenTaskBuilder> parameters) {
-        if (this.ignoredTokens.contains(type)) {
-            throw new IllegalStateException("Cannot attempt to read an ignored token type: " + type.name());
-        }
-
-        this.expectedTokens.offer(newTask(new CallableAction(token -> token.type() == type, callback, subAction), parameters));
+        this.grammar.map(type, withoutContext(callback), subSequence(subAction), parameters);
         return this;
     }
 
@@ -78,13 +65,7 @@ public class SequenceTokens {
     }
 
     public SequenceTokens map(Predicate<TokenType> types, Consumer<PrintableToken> callback, UnaryOperator<TokenTaskBuilder> parameters) {
-        for (TokenType ignoredType : this.ignoredTokens) {
-            if (types.test(ignoredType)) {
-                throw new IllegalStateException("Cannot attempt to read an ignored token type: " + ignoredType.name());
-            }
-        }
-
-        this.expectedTokens.offer(newTask(new CallableAction(token -> types.test(token.type()), callback, null), parameters));
+        this.grammar.map(types, withoutContext(callback), parameters);
         return this;
     }
 
@@ -93,11 +74,7 @@ public class SequenceTokens {
     }
 
     public SequenceTokens mapIdentifier(Predicate<String> names, Consumer<PrintableToken> callback, UnaryOperator<TokenTaskBuilder> parameters) {
-        if (this.ignoredTokens.contains(TokenType.IDENTIFIER)) {
-            throw new IllegalStateException("Cannot attempt to read an ignored token type: " + this.ignoredTokens);
-        }
-
-        this.expectedTokens.offer(newTask(new CallableAction(token -> token.type() == TokenType.IDENTIFIER && names.test(((CharSequenceToken) token).value()), callback, null), parameters));
+        this.grammar.mapIdentifier(names, withoutContext(callback), parameters);
         return this;
     }
 
@@ -106,19 +83,12 @@ public class SequenceTokens {
     }
 
     public SequenceTokens mapQualifiedName(Consumer<CharSequenceToken> nameCallback, Consumer<PrintableToken> dotCallback, Predicate<TokenType> transparentTokens, @Nullable Consumer<SequenceTokens> partialAction) {
-        if (this.ignoredTokens.contains(TokenType.IDENTIFIER) || this.ignoredTokens.contains(TokenType.DOT)) {
-            throw new IllegalStateException("Cannot attempt to read an ignored token type: " + this.ignoredTokens);
-        }
-        if (transparentTokens.test(TokenType.IDENTIFIER) || transparentTokens.test(TokenType.DOT)) {
-            throw new IllegalArgumentException("Transparent tokens cannot be an identifier or a dot: " + transparentTokens);
-        }
-
-        this.expectedTokens.offer(newTask(new CallableQualifiedNameAction(nameCallback, dotCallback, transparentTokens, partialAction)));
+        this.grammar.mapQualifiedName(withoutContext(nameCallback), withoutContext(dotCallback), transparentTokens, subSequence(partialAction));
         return this;
     }
 
     public SequenceTokens group(Consumer<SequenceTokens> subAction, UnaryOperator<TokenTaskBuilder> parameters) {
-        this.expectedTokens.offer(newTask(new SubAction(subAction), parameters));
+        this.grammar.group(builder -> subAction.accept(new SequenceTokens(null, builder)), parameters);
         return this;
     }
 
@@ -135,11 +105,7 @@ public class SequenceTokens {
     }
 
     public SequenceTokens skip(TokenType type, @Nullable Consumer<SequenceTokens> subAction, UnaryOperator<TokenTaskBuilder> parameters) {
-        if (this.ignoredTokens.contains(type)) {
-            throw new IllegalStateException("Cannot attempt to skip an already ignored token type: " + type.name());
-        }
-
-        this.expectedTokens.offer(newTask(new SkipAction(token -> token.type() == type, subAction), parameters));
+        this.grammar.skip(type, subSequence(subAction), parameters);
         return this;
     }
 
@@ -156,11 +122,7 @@ public class SequenceTokens {
     }
 
     public SequenceTokens skipIdentifier(Predicate<String> names, @Nullable Consumer<SequenceTokens> subAction, UnaryOperator<TokenTaskBuilder> parameters) {
-        if (this.ignoredTokens.contains(TokenType.IDENTIFIER)) {
-            throw new IllegalStateException("Cannot attempt to skip an already ignored token type: " + this.ignoredTokens);
-        }
-
-        this.expectedTokens.offer(newTask(new SkipAction(token -> token.type() == TokenType.IDENTIFIER && names.test(((CharSequenceToken) token).value()), subAction), parameters));
+        this.grammar.skipIdentifier(names, subSequence(subAction), parameters);
         return this;
     }
 
@@ -177,14 +139,7 @@ public class SequenceTokens {
     }
 
     public SequenceTokens skipQualifiedName(Predicate<TokenType> transparentTokens, @Nullable Consumer<SequenceTokens> partialAction) {
-        if (this.ignoredTokens.contains(TokenType.IDENTIFIER) || this.ignoredTokens.contains(TokenType.DOT)) {
-            throw new IllegalStateException("Cannot attempt to skip an already ignored token type: " + this.ignoredTokens);
-        }
-        if (transparentTokens.test(TokenType.IDENTIFIER) || transparentTokens.test(TokenType.DOT)) {
-            throw new IllegalArgumentException("Transparent tokens cannot be an identifier or a dot: " + transparentTokens);
-        }
-
-        this.expectedTokens.offer(newTask(new CallableQualifiedNameAction(name -> {}, dot -> {}, transparentTokens, partialAction)));
+        this.grammar.skipQualifiedName(transparentTokens, subSequence(partialAction));
         return this;
     }
 
@@ -193,7 +148,7 @@ public class SequenceTokens {
     }
 
     public SequenceTokens skipUntilNextLine(int count) {
-        this.expectedTokens.offer(newTask(new SkipLineAction(count), UnaryOperator.identity()));
+        this.grammar.skipUntilNextLine(count);
         return this;
     }
 
@@ -202,264 +157,30 @@ public class SequenceTokens {
     }
 
     public SequenceTokens skipClosure(TokenType open, TokenType close, boolean nested, UnaryOperator<TokenTaskBuilder> parameters) {
-        this.expectedTokens.offer(newTask(new SkipClosureAction(open, close, nested), parameters));
+        this.grammar.skipClosure(open, close, nested, parameters);
         return this;
     }
 
+    private Tokenizer tokenizer() {
+        if (this.tokenizer == null) {
+            throw new IllegalStateException("Sub sequences are executed by their parent");
+        }
+        return this.tokenizer;
+    }
+
     public boolean execute() {
         return this.execute(null);
     }
 
     public boolean executeOrThrow(BiFunction<TokenTaskThrowable, PrintableToken, Exception> failure) {
-        return this.execute(failedTask -> {
-            throw new RuntimeException(
-                failure.apply(
-                    failedTask,
-                    (PrintableToken) this.iterator.peekPrevious()
-                )
-            );
-        });
+        return this.grammar.build().executeOrThrow(this.tokenizer(), null, failure);
     }
 
     public boolean executeOrThrow() {
-        return this.executeOrThrow((failedTask, token) -> failedTask.createFailure("Unexpected token found or a task failed to execute", token));
+        return this.grammar.build().executeOrThrow(this.tokenizer(), null);
     }
 
     public boolean execute(@Nullable Consumer<TokenTask> failure) {
-        if (this.expectedTokens.isEmpty()) {
-            throw new IllegalStateException("Expected tokens list is empty");
-        }
-        if (this.failedTask != null) {
-            return false;
-        }
-
-        try {
-            TokenTask failedTask = null;
-            while (!this.expectedTokens.isEmpty() && this.iterator.hasNext()) {
-                PrintableToken token = (PrintableToken) this.iterator.next();
-                if (this.ignoredTokens.contains(token.type())) {
-                    continue;
-                }
-
-                TokenTask task = this.expectedTokens.peek();
-
-                boolean alreadyRan = false;
-                if (task.isRepeatable()) {
-                    alreadyRan = task.repeatCall();
-                    if (!alreadyRan) {
-                        task.runHook(HookType.FIRST, hook -> hook.pre().accept(token));
-                    }
-                }
-
-                task.runHook(HookType.EVERY, hook -> hook.pre().accept(token));
-                boolean success = task.run(token, this);
-                task.runHook(HookType.EVERY, hook -> hook.post().accept(token));
-
-                if (!task.isRepeatable() || (success ? (alreadyRan && !this.iterator.hasNext()) : (alreadyRan || task.isOptional()))) {
-                    if (task.isRepeatable()) {
-                        task.runHook(HookType.LAST, hook -> hook.post().accept(token));
-                    }
-                    this.expectedTokens.poll();
-                }
-
-                if (!success) {
-                    if (task.isOptional() || alreadyRan) { // at least one run for repeat
-                        this.iterator.previous();
-                    } else {
-                        failedTask = task;
-                        break;
-                    }
-                }
-            }
-
-            if (!this.iterator.hasNext()) {
-                // consume remaining optional tasks when the input is completely evaluated
-                while (true) {
-                    TokenTask task = this.expectedTokens.peek();
-                    if (task == null || !task.isOptional()) {
-                        break;
-                    }
-                    this.expectedTokens.poll();
-                }
-            }
-
-            boolean done = this.expectedTokens.isEmpty() && failedTask == null;
-            if (!done) {
-                this.failedTask = failedTask != null ? failedTask : this.expectedTokens.peek();
-            }
-            return done;
-        } finally {
-            if (this.failedTask != null && failure != null) {
-                failure.accept(this.failedTask);
-            }
-            this.failedTask = null;
-        }
-    }
-
-    private boolean executeSub(Consumer<SequenceTokens> action) {
-        SequenceTokens sequence = new SequenceTokens(this);
-        action.accept(sequence);
-        return sequence.execute((failedTask -> this.failedTask = failedTask));
-    }
-
-    private record SubAction(Consumer<SequenceTokens> subAction) implements TokenAction {
-
-        @Override
-        public boolean execute(PrintableToken token, SequenceTokens executor) {
-            executor.iterator().previous(); // get the initial token into the next pipe
-            return executor.executeSub(this.subAction);
-        }
-    }
-
-    private record SkipAction(Predicate<Token> tokenPredicate, @Nullable Consumer<SequenceTokens> subAction) implements TokenAction {
-
-        @Override
-        public boolean execute(PrintableToken token, SequenceTokens executor) {
-            boolean foundToken = this.tokenPredicate.test(token);
-            if (foundToken && this.subAction != null) {
-                return executor.executeSub(this.subAction);
-            }
-            return foundToken;
-        }
-    }
-
-    private record SkipLineAction(int count) implements TokenAction {
-
-        @Override
-        public boolean execute(PrintableToken token, SequenceTokens executor) {
-            int skipGoal = ((PrintableToken) executor.iterator().peekPrevious()).row() + this.count;
-            if (token.row() >= skipGoal) {
-                executor.iterator().previous();
-                return true;
-            }
-
-            NavigableToken iterator = executor.iterator();
-            while (iterator.hasNext()) {
-                Token currentToken = iterator.next();
-                if (executor.ignoredTokens.contains(currentToken.type())) {
-                    continue;
-                }
-                if (((PrintableToken) currentToken).row() >= skipGoal) {
-                    executor.iterator().previous();
-                    return true;
-                }
-            }
-            return true;
-        }
-    }
-
-    // could be useful to have a skipUntil(TokenType) that consider nested closures
-    private record SkipClosureAction(TokenType open, TokenType close, boolean nested) implements TokenAction {
-
-        @Override
-        public boolean execute(PrintableToken token, SequenceTokens executor) {
-            if (token.type() != this.open) {
-                return false;
-            }
-
-            NavigableToken iterator = executor.iterator();
-            int depth = 1;
-            while (iterator.hasNext()) {
-                Token currentToken = iterator.next();
-                if (executor.ignoredTokens.contains(currentToken.type())) {
-                    continue;
-                }
-
-                if (this.nested) {
-                    if (currentToken.type() == this.open) {
-                        depth++;
-                    }
-                }
-
-                if (currentToken.type() == this.close) {
-                    depth--;
-                }
-
-                if (depth == 0) {
-                    return true;
-                }
-            }
-            return false;
-        }
-    }
-
-    private record CallableAction(Predicate<Token> tokenPredicate, Consumer<PrintableToken> callback, @Nullable Consumer<SequenceTokens> subAction) implements TokenAction {
-
-        @Override
-        public boolean execute(PrintableToken token, SequenceTokens executor) {
-            if (this.tokenPredicate.test(token)) {
-                this.callback.accept(token);
-                if (this.subAction != null) {
-                    return executor.executeSub(this.subAction);
-                }
-                return true;
-            }
-            return false;
-        }
-    }
-
-    private record CallableQualifiedNameAction(Consumer<CharSequenceToken> nameCallback, Consumer<PrintableToken> dotCallback, Predicate<TokenType> transparentTokens, @Nullable Consumer<SequenceTokens> partialAction) implements TokenAction {
-
-        @Override
-        public boolean execute(PrintableToken token, SequenceTokens executor) {
-            if (token.type() != TokenType.IDENTIFIER) {
-                return false;
-            }
-
-            this.nameCallback.accept((CharSequenceToken) token);
-
-            NavigableToken iterator = executor.iterator();
-            boolean expectDot = true;
-            Integer expectNToken = null;
-            Token lastToken = token;
-            while (iterator.hasNext()) {
-                PrintableToken currentToken = (PrintableToken) iterator.next();
-                if (executor.ignoredTokens.contains(currentToken.type()) || this.transparentTokens.test(currentToken.type())) {
-                    continue;
-                }
-
-                if (currentToken.type() != (expectDot ? TokenType.DOT : TokenType.IDENTIFIER)) {
-                    iterator.previous();
-                    if (expectNToken == null && !expectDot && this.partialAction != null && currentToken.type() == TokenType.AT_SIGN) { // annotation inside qn
-                        if (!executor.executeSub(this.partialAction)) {
-                            return false;
-                        } else {
-                            expectNToken = 1;
-                            continue;
-                        }
-                    }
-                    break;
-                }
-                lastToken = currentToken;
-
-                if (!expectDot && SourceVersion.isKeyword(((CharSequenceToken) currentToken).value())) { // invalid name
-                    return false;
-                }
-
-                if (expectNToken != null) {
-                    if (expectNToken > 0) {
-                        expectNToken--;
-                    } else {
-                        return false;
-                    }
-                }
-
-                if (expectDot) {
-                    this.dotCallback.accept(currentToken);
-                } else {
-                    this.nameCallback.accept((CharSequenceToken) currentToken);
-                }
-                expectDot = !expectDot;
-            }
-
-            if (lastToken.type() == TokenType.IDENTIFIER) {
-                return true;
-            }
-
-            if (this.partialAction != null && lastToken.type() == TokenType.DOT) { // .*
-                return executor.executeSub(this.partialAction);
-            }
-            return false;
-        }
+        return this.grammar.build().execute(this.tokenizer(), null, failure);
     }
 }
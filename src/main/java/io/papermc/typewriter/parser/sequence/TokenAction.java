@@ -4,5 +4,5 @@ import io.papermc.typewriter.parser.token.PrintableToken;
 
 interface TokenAction {
 
-    boolean execute(PrintableToken token, SequenceTokens executor);
+    boolean execute(PrintableToken token, TokenExecution execution);
 }
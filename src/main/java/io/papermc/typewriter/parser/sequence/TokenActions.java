@@ -0,0 +1,185 @@
+package io.papermc.typewriter.parser.sequence;
+
+import io.papermc.typewriter.parser.iterator.NavigableBufferToken;
+import io.papermc.typewriter.parser.token.CharSequenceToken;
+import io.papermc.typewriter.parser.token.PrintableToken;
+import io.papermc.typewriter.parser.token.Token;
+import io.papermc.typewriter.parser.token.TokenType;
+import javax.lang.model.SourceVersion;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+final class TokenActions {
+
+    interface SubSequence {
+
+        boolean execute(TokenExecution execution);
+    }
+
+    record SubAction(SubSequence subAction) implements TokenAction {
+
+        @Override
+        public boolean execute(PrintableToken token, TokenExecution execution) {
+            execution.iterator.previous(); // get the initial token into the next pipe
+            return this.subAction.execute(execution);
+        }
+    }
+
+    record SkipAction(Predicate<Token> tokenPredicate, @Nullable SubSequence subAction) implements TokenAction {
+
+        @Override
+        public boolean execute(PrintableToken token, TokenExecution execution) {
+            boolean foundToken = this.tokenPredicate.test(token);
+            if (foundToken && this.subAction != null) {
+                return this.subAction.execute(execution);
+            }
+            return foundToken;
+        }
+    }
+
+    record SkipLineAction(int count) implements TokenAction {
+
+        @Override
+        public boolean execute(PrintableToken token, TokenExecution execution) {
+            NavigableBufferToken iterator = execution.iterator;
+            int skipGoal = ((PrintableToken) iterator.peekPrevious()).row() + this.count;
+            if (token.row() >= skipGoal) {
+                iterator.previous();
+                return true;
+            }
+
+            while (iterator.hasNext()) {
+                Token currentToken = iterator.next();
+                if (execution.ignoredTokens.contains(currentToken.type())) {
+                    continue;
+                }
+                if (((PrintableToken) currentToken).row() >= skipGoal) {
+                    iterator.previous();
+                    return true;
+                }
+            }
+            return true;
+        }
+    }
+
+    // could be useful to have a skipUntil(TokenType) that consider nested closures
+    record SkipClosureAction(TokenType open, TokenType close, boolean nested) implements TokenAction {
+
+        @Override
+        public boolean execute(PrintableToken token, TokenExecution execution) {
+            if (token.type() != this.open) {
+                return false;
+            }
+
+            NavigableBufferToken iterator = execution.iterator;
+            int depth = 1;
+            while (iterator.hasNext()) {
+                Token currentToken = iterator.next();
+                if (execution.ignoredTokens.contains(currentToken.type())) {
+                    continue;
+                }
+
+                if (this.nested) {
+                    if (currentToken.type() == this.open) {
+                        depth++;
+                    }
+                }
+
+                if (currentToken.type() == this.close) {
+                    depth--;
+                }
+
+                if (depth == 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    record CallableAction<C>(Predicate<Token> tokenPredicate, BiConsumer<C, PrintableToken> callback, @Nullable SubSequence subAction) implements TokenAction {
+
+        @Override
+        public boolean execute(PrintableToken token, TokenExecution execution) {
+            if (this.tokenPredicate.test(token)) {
+                this.callback.accept(execution.context(), token);
+                if (this.subAction != null) {
+                    return this.subAction.execute(execution);
+                }
+                return true;
+            }
+            return false;
+        }
+    }
+
+    record CallableQualifiedNameAction<C>(BiConsumer<C, CharSequenceToken> nameCallback, BiConsumer<C, PrintableToken> dotCallback, Predicate<TokenType> transparentTokens, @Nullable SubSequence partialAction) implements TokenAction {
+
+        @Override
+        public boolean execute(PrintableToken token, TokenExecution execution) {
+            if (token.type() != TokenType.IDENTIFIER) {
+                return false;
+            }
+
+            C context = execution.context();
+            this.nameCallback.accept(context, (CharSequenceToken) token);
+
+            NavigableBufferToken iterator = execution.iterator;
+            boolean expectDot = true;
+            Integer expectNToken = null;
+            Token lastToken = token;
+            while (iterator.hasNext()) {
+                PrintableToken currentToken = (PrintableToken) iterator.next();
+                if (execution.ignoredTokens.contains(currentToken.type()) || this.transparentTokens.test(currentToken.type())) {
+                    continue;
+                }
+
+                if (currentToken.type() != (expectDot ? TokenType.DOT : TokenType.IDENTIFIER)) {
+                    iterator.previous();
+                    if (expectNToken == null && !expectDot && this.partialAction != null && currentToken.type() == TokenType.AT_SIGN) { // annotation inside qn
+                        if (!this.partialAction.execute(execution)) {
+                            return false;
+                        } else {
+                            expectNToken = 1;
+                            continue;
+                        }
+                    }
+                    break;
+                }
+                lastToken = currentToken;
+
+                if (!expectDot && SourceVersion.isKeyword(((CharSequenceToken) currentToken).value())) { // invalid name
+                    return false;
+                }
+
+                if (expectNToken != null) {
+                    if (expectNToken > 0) {
+                        expectNToken--;
+                    } else {
+                        return false;
+                    }
+                }
+
+                if (expectDot) {
+                    this.dotCallback.accept(context, currentToken);
+                } else {
+                    this.nameCallback.accept(context, (CharSequenceToken) currentToken);
+                }
+                expectDot = !expectDot;
+            }
+
+            if (lastToken.type() == TokenType.IDENTIFIER) {
+                return true;
+            }
+
+            if (this.partialAction != null && lastToken.type() == TokenType.DOT) { // .*
+                return this.partialAction.execute(execution);
+            }
+            return false;
+        }
+    }
+
+    private TokenActions() {
+    }
+}
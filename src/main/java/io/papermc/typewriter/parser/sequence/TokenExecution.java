@@ -0,0 +1,111 @@
+package io.papermc.typewriter.parser.sequence;
+
+import io.papermc.typewriter.parser.Tokenizer;
+import io.papermc.typewriter.parser.iterator.NavigableBufferToken;
+import io.papermc.typewriter.parser.token.PrintableToken;
+import io.papermc.typewriter.parser.token.TokenType;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+// per-execution state shared by the sequence and its sub sequences, the tasks themselves are never mutated
+final class TokenExecution {
+
+    // the tasks only step back a few tokens at most
+    private static final int LOOKBEHIND = 16;
+
+    final NavigableBufferToken iterator;
+    final Set<TokenType> ignoredTokens;
+    private final @Nullable Object context;
+    private @Nullable TokenTask failedTask;
+
+    TokenExecution(Tokenizer tokenizer, Set<TokenType> ignoredTokens, @Nullable Object context) {
+        this.iterator = new NavigableBufferToken(tokenizer, LOOKBEHIND);
+        this.ignoredTokens = ignoredTokens;
+        this.context = context;
+    }
+
+    @SuppressWarnings("unchecked")
+    <C> C context() {
+        return (C) this.context;
+    }
+
+    boolean execute(TokenTask[] tasks, @Nullable Consumer<TokenTask> failure) {
+        try {
+            return this.executeSub(tasks);
+        } finally {
+            if (this.failedTask != null && failure != null) {
+                failure.accept(this.failedTask);
+            }
+            this.failedTask = null;
+        }
+    }
+
+    // a failure in a sub sequence is kept until the end of the execution even if the parent recovers from it
+    boolean executeSub(TokenTask[] tasks) {
+        if (tasks.length == 0) {
+            throw new IllegalStateException("Expected tokens list is empty");
+        }
+
+        int cursor = 0;
+        boolean headRan = false;
+        TokenTask failedTask = null;
+        while (cursor < tasks.length && this.iterator.hasNext()) {
+            PrintableToken token = (PrintableToken) this.iterator.next();
+            if (this.ignoredTokens.contains(token.type())) {
+                continue;
+            }
+
+            TokenTask task = tasks[cursor];
+
+            boolean alreadyRan = false;
+            if (task.isRepeatable()) {
+                alreadyRan = headRan;
+                headRan = true;
+                if (!alreadyRan && task.hooked) {
+                    task.firstPre(token);
+                }
+            }
+
+            boolean success;
+            if (task.hooked) {
+                task.everyPre(token);
+                success = task.run(token, this);
+                task.everyPost(token);
+            } else {
+                success = task.run(token, this);
+            }
+
+            if (!task.isRepeatable() || (success ? (alreadyRan && !this.iterator.hasNext()) : (alreadyRan || task.isOptional()))) {
+                if (task.isRepeatable() && task.hooked) {
+                    task.lastPost(token);
+                }
+                cursor++;
+                headRan = false;
+            }
+
+            if (!success) {
+                if (task.isOptional() || alreadyRan) { // at least one run for repeat
+                    this.iterator.previous();
+                } else {
+                    failedTask = task;
+                    break;
+                }
+            }
+        }
+
+        if (!this.iterator.hasNext()) {
+            // consume remaining optional tasks when the input is completely evaluated
+            while (cursor < tasks.length && tasks[cursor].isOptional()) {
+                cursor++;
+            }
+        }
+
+        boolean done = cursor == tasks.length && failedTask == null;
+        if (!done) {
+            this.failedTask = failedTask != null ? failedTask : tasks[cursor];
+        }
+        return done;
+    }
+}
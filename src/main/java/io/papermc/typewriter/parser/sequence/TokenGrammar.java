@@ -0,0 +1,245 @@
+package io.papermc.typewriter.parser.sequence;
+
+import io.papermc.typewriter.parser.Tokenizer;
+import io.papermc.typewriter.parser.sequence.TokenActions.CallableAction;
+import io.papermc.typewriter.parser.sequence.TokenActions.CallableQualifiedNameAction;
+import io.papermc.typewriter.parser.sequence.TokenActions.SkipAction;
+import io.papermc.typewriter.parser.sequence.TokenActions.SkipClosureAction;
+import io.papermc.typewriter.parser.sequence.TokenActions.SkipLineAction;
+import io.papermc.typewriter.parser.sequence.TokenActions.SubAction;
+import io.papermc.typewriter.parser.sequence.TokenActions.SubSequence;
+import io.papermc.typewriter.parser.token.CharSequenceToken;
+import io.papermc.typewriter.parser.token.PrintableToken;
+import io.papermc.typewriter.parser.token.TokenType;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.jetbrains.annotations.Contract;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * A compiled sequence of expected tokens that can be executed any number of times
+ * on different tokenizers. Sub actions are built once with the grammar and the callbacks
+ * receive a context object given at each execution to store their result.
+ * {@link SequenceTokens} wraps a grammar executed only once.
+ * <br>
+ * Hooks are shared between all the executions and don't receive the context.
+ *
+ * @param <C> the context type
+ */
+public final class TokenGrammar<C> {
+
+    private final TokenTask[] tasks;
+    private final Set<TokenType> ignoredTokens;
+
+    private TokenGrammar(TokenTask[] tasks, Set<TokenType> ignoredTokens) {
+        this.tasks = tasks;
+        this.ignoredTokens = ignoredTokens;
+    }
+
+    public static <C> Builder<C> builder() {
+        return new Builder<>(EnumSet.noneOf(TokenType.class));
+    }
+
+    public static <C> Builder<C> builder(Set<TokenType> ignoredTokens) {
+        return new Builder<>(EnumSet.copyOf(ignoredTokens));
+    }
+
+    public boolean execute(Tokenizer tokenizer, C context) {
+        return this.execute(tokenizer, context, null);
+    }
+
+    public boolean executeOrThrow(Tokenizer tokenizer, C context, BiFunction<TokenTaskThrowable, PrintableToken, Exception> failure) {
+        TokenExecution execution = new TokenExecution(tokenizer, this.ignoredTokens, context);
+        return execution.execute(this.tasks, failedTask -> {
+            throw new RuntimeException(
+                failure.apply(
+                    failedTask,
+                    (PrintableToken) execution.iterator.peekPrevious()
+                )
+            );
+        });
+    }
+
+    public boolean executeOrThrow(Tokenizer tokenizer, C context) {
+        return this.executeOrThrow(tokenizer, context, (failedTask, token) -> failedTask.createFailure("Unexpected token found or a task failed to execute", token));
+    }
+
+    public boolean execute(Tokenizer tokenizer, C context, @Nullable Consumer<TokenTask> failure) {
+        return new TokenExecution(tokenizer, this.ignoredTokens, context).execute(this.tasks, failure);
+    }
+
+    public static final class Builder<C> {
+
+        private final Set<TokenType> ignoredTokens;
+        private final List<TokenTask> tasks = new ArrayList<>();
+
+        private Builder(Set<TokenType> ignoredTokens) {
+            this.ignoredTokens = ignoredTokens;
+        }
+
+        private TokenTask newTask(TokenAction action, UnaryOperator<TokenTaskBuilder> params) {
+            return ((TokenTask.Builder) params.apply(new TokenTask.Builder(action))).build();
+        }
+
+        private @Nullable SubSequence subSequence(@Nullable Consumer<Builder<C>> subAction) {
+            if (subAction == null) {
+                return null;
+            }
+
+            Builder<C> builder = new Builder<>(this.ignoredTokens);
+            subAction.accept(builder);
+            TokenTask[] tasks = builder.compile();
+            return execution -> execution.executeSub(tasks);
+        }
+
+        private TokenTask[] compile() {
+            if (this.tasks.isEmpty()) {
+                throw new IllegalStateException("Expected tokens list is empty");
+            }
+            return this.tasks.toArray(new TokenTask[0]);
+        }
+
+        private void checkReadable(TokenType type) {
+            if (this.ignoredTokens.contains(type)) {
+                throw new IllegalStateException("Cannot attempt to read an ignored token type: " + type.name());
+            }
+        }
+
+        @Contract(value = "_, _ -> this", mutates = "this")
+        public Builder<C> map(TokenType type, BiConsumer<C, PrintableToken> callback) {
+            return this.map(type, callback, UnaryOperator.identity());
+        }
+
+        @Contract(value = "_, _, _ -> this", mutates = "this")
+        public Builder<C> map(TokenType type, BiConsumer<C, PrintableToken> callback, UnaryOperator<TokenTaskBuilder> parameters) {
+            return this.map(type, callback, null, parameters);
+        }
+
+        @Contract(value = "_, _, _, _ -> this", mutates = "this")
+        public Builder<C> map(TokenType type, BiConsumer<C, PrintableToken> callback, @Nullable Consumer<Builder<C>> subAction, UnaryOperator<TokenTaskBuilder> parameters) {
+            this.checkReadable(type);
+            this.tasks.add(newTask(new CallableAction<>(token -> token.type() == type, callback, this.subSequence(subAction)), parameters));
+            return this;
+        }
+
+        @Contract(value = "_, _ -> this", mutates = "this")
+        public Builder<C> map(Predicate<TokenType> types, BiConsumer<C, PrintableToken> callback) {
+            return this.map(types, callback, UnaryOperator.identity());
+        }
+
+        @Contract(value = "_, _, _ -> this", mutates = "this")
+        public Builder<C> map(Predicate<TokenType> types, BiConsumer<C, PrintableToken> callback, UnaryOperator<TokenTaskBuilder> parameters) {
+            for (TokenType ignoredType : this.ignoredTokens) {
+                if (types.test(ignoredType)) {
+                    throw new IllegalStateException("Cannot attempt to read an ignored token type: " + ignoredType.name());
+                }
+            }
+
+            this.tasks.add(newTask(new CallableAction<>(token -> types.test(token.type()), callback, null), parameters));
+            return this;
+        }
+
+        @Contract(value = "_, _ -> this", mutates = "this")
+        public Builder<C> mapIdentifier(Predicate<String> names, BiConsumer<C, PrintableToken> callback) {
+            return this.mapIdentifier(names, callback, UnaryOperator.identity());
+        }
+
+        @Contract(value = "_, _, _ -> this", mutates = "this")
+        public Builder<C> mapIdentifier(Predicate<String> names, BiConsumer<C, PrintableToken> callback, UnaryOperator<TokenTaskBuilder> parameters) {
+            return this.mapIdentifier(names, callback, null, parameters);
+        }
+
+        @Contract(value = "_, _, _, _ -> this", mutates = "this")
+        public Builder<C> mapIdentifier(Predicate<String> names, BiConsumer<C, PrintableToken> callback, @Nullable Consumer<Builder<C>> subAction, UnaryOperator<TokenTaskBuilder> parameters) {
+            this.checkReadable(TokenType.IDENTIFIER);
+            this.tasks.add(newTask(new CallableAction<>(token -> token.type() == TokenType.IDENTIFIER && names.test(((CharSequenceToken) token).value()), callback, this.subSequence(subAction)), parameters));
+            return this;
+        }
+
+        @Contract(value = "_, _, _ -> this", mutates = "this")
+        public Builder<C> mapQualifiedName(BiConsumer<C, CharSequenceToken> nameCallback, BiConsumer<C, PrintableToken> dotCallback, @Nullable Consumer<Builder<C>> partialAction) {
+            return this.mapQualifiedName(nameCallback, dotCallback, type -> false, partialAction);
+        }
+
+        @Contract(value = "_, _, _, _ -> this", mutates = "this")
+        public Builder<C> mapQualifiedName(BiConsumer<C, CharSequenceToken> nameCallback, BiConsumer<C, PrintableToken> dotCallback, Predicate<TokenType> transparentTokens, @Nullable Consumer<Builder<C>> partialAction) {
+            this.checkReadable(TokenType.IDENTIFIER);
+            this.checkReadable(TokenType.DOT);
+            if (transparentTokens.test(TokenType.IDENTIFIER) || transparentTokens.test(TokenType.DOT)) {
+                throw new IllegalArgumentException("Transparent tokens cannot be an identifier or a dot: " + transparentTokens);
+            }
+
+            this.tasks.add(newTask(new CallableQualifiedNameAction<>(nameCallback, dotCallback, transparentTokens, this.subSequence(partialAction)), UnaryOperator.identity()));
+            return this;
+        }
+
+        @Contract(value = "_, _ -> this", mutates = "this")
+        public Builder<C> group(Consumer<Builder<C>> subAction, UnaryOperator<TokenTaskBuilder> parameters) {
+            this.tasks.add(newTask(new SubAction(this.subSequence(subAction)), parameters));
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public Builder<C> skip(TokenType type) {
+            return this.skip(type, null, UnaryOperator.identity());
+        }
+
+        @Contract(value = "_, _, _ -> this", mutates = "this")
+        public Builder<C> skip(TokenType type, @Nullable Consumer<Builder<C>> subAction, UnaryOperator<TokenTaskBuilder> parameters) {
+            this.checkReadable(type);
+            this.tasks.add(newTask(new SkipAction(token -> token.type() == type, this.subSequence(subAction)), parameters));
+            return this;
+        }
+
+        @Contract(value = "_, _ -> this", mutates = "this")
+        public Builder<C> skipIdentifier(Predicate<String> names, UnaryOperator<TokenTaskBuilder> parameters) {
+            return this.skipIdentifier(names, null, parameters);
+        }
+
+        @Contract(value = "_, _, _ -> this", mutates = "this")
+        public Builder<C> skipIdentifier(Predicate<String> names, @Nullable Consumer<Builder<C>> subAction, UnaryOperator<TokenTaskBuilder> parameters) {
+            this.checkReadable(TokenType.IDENTIFIER);
+            this.tasks.add(newTask(new SkipAction(token -> token.type() == TokenType.IDENTIFIER && names.test(((CharSequenceToken) token).value()), this.subSequence(subAction)), parameters));
+            return this;
+        }
+
+        @Contract(value = "-> this", mutates = "this")
+        public Builder<C> skipQualifiedName() {
+            return this.skipQualifiedName(type -> false, null);
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public Builder<C> skipQualifiedName(@Nullable Consumer<Builder<C>> partialAction) {
+            return this.skipQualifiedName(type -> false, partialAction);
+        }
+
+        @Contract(value = "_, _ -> this", mutates = "this")
+        public Builder<C> skipQualifiedName(Predicate<TokenType> transparentTokens, @Nullable Consumer<Builder<C>> partialAction) {
+            return this.mapQualifiedName((context, name) -> {}, (context, dot) -> {}, transparentTokens, partialAction);
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public Builder<C> skipUntilNextLine(int count) {
+            this.tasks.add(newTask(new SkipLineAction(count), UnaryOperator.identity()));
+            return this;
+        }
+
+        @Contract(value = "_, _, _, _ -> this", mutates = "this")
+        public Builder<C> skipClosure(TokenType open, TokenType close, boolean nested, UnaryOperator<TokenTaskBuilder> parameters) {
+            this.tasks.add(newTask(new SkipClosureAction(open, close, nested), parameters));
+            return this;
+        }
+
+        public TokenGrammar<C> build() {
+            return new TokenGrammar<>(this.compile(), this.ignoredTokens);
+        }
+    }
+}
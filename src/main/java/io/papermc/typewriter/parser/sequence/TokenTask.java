@@ -1,12 +1,12 @@
 package io.papermc.typewriter.parser.sequence;
 
 import io.papermc.typewriter.parser.exception.ParserException;
-import io.papermc.typewriter.parser.sequence.hook.Callback;
 import io.papermc.typewriter.parser.sequence.hook.HookManager;
 import io.papermc.typewriter.parser.sequence.hook.HookType;
 import io.papermc.typewriter.parser.sequence.hook.Hooks;
 import io.papermc.typewriter.parser.token.PrintableToken;
 import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.function.Consumer;
 
@@ -15,14 +15,29 @@ public class TokenTask implements TokenTaskThrowable {
     private final TokenAction action;
     private final boolean optional;
     private final boolean repeatable;
-    private final @MonotonicNonNull HookManager hookManager;
-    private boolean alreadyRan;
-
-    public TokenTask(TokenAction action, boolean optional, boolean repeatable, HookManager hookManager) {
+    // resolved from the hook manager, null when absent to skip the dispatch
+    private final @Nullable Consumer<PrintableToken> firstPre;
+    private final @Nullable Consumer<PrintableToken> everyPre;
+    private final @Nullable Consumer<PrintableToken> everyPost;
+    private final @Nullable Consumer<PrintableToken> lastPost;
+    final boolean hooked;
+
+    public TokenTask(TokenAction action, boolean optional, boolean repeatable, @Nullable HookManager hookManager) {
         this.action = action;
         this.optional = optional;
         this.repeatable = repeatable;
-        this.hookManager = hookManager;
+        if (hookManager != null) {
+            this.firstPre = hookManager.pre(HookType.FIRST);
+            this.everyPre = hookManager.pre(HookType.EVERY);
+            this.everyPost = hookManager.post(HookType.EVERY);
+            this.lastPost = hookManager.post(HookType.LAST);
+        } else {
+            this.firstPre = null;
+            this.everyPre = null;
+            this.everyPost = null;
+            this.lastPost = null;
+        }
+        this.hooked = this.firstPre != null || this.everyPre != null || this.everyPost != null || this.lastPost != null;
     }
 
     public boolean isOptional() {
@@ -33,22 +48,32 @@ public class TokenTask implements TokenTaskThrowable {
         return this.repeatable;
     }
 
-    boolean repeatCall() {
-        boolean alreadyRan = this.alreadyRan;
-        this.alreadyRan = true;
-        return alreadyRan;
+    boolean run(PrintableToken token, TokenExecution execution) {
+        return this.action.execute(token, execution);
+    }
+
+    void firstPre(PrintableToken token) {
+        if (this.firstPre != null) {
+            this.firstPre.accept(token);
+        }
     }
 
-    boolean run(PrintableToken token, SequenceTokens executor) {
-        return this.action.execute(token, executor);
+    void everyPre(PrintableToken token) {
+        if (this.everyPre != null) {
+            this.everyPre.accept(token);
+        }
     }
 
-    void runHook(HookType type, Consumer<Callback> callback) {
-        if (this.hookManager == null) {
-            return;
+    void everyPost(PrintableToken token) {
+        if (this.everyPost != null) {
+            this.everyPost.accept(token);
         }
+    }
 
-        this.hookManager.fire(type, callback);
+    void lastPost(PrintableToken token) {
+        if (this.lastPost != null) {
+            this.lastPost.accept(token);
+        }
     }
 
     static class Builder implements TokenTaskBuilder {
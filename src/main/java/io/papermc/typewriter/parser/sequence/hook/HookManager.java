@@ -1,5 +1,8 @@
 package io.papermc.typewriter.parser.sequence.hook;
 
+import io.papermc.typewriter.parser.token.PrintableToken;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
 import java.util.EnumMap;
 import java.util.Map;
 import java.util.function.Consumer;
@@ -11,7 +14,7 @@ public class HookManager implements Hooks {
 
     @Override
     public void bind(HookType type, UnaryOperator<Hook> callback) {
-        this.events.put(type, ((AbstractHook) callback.apply(type.emptyHook())).callback());
+        this.events.put(type, ((AbstractHook) callback.apply(type.newHook())).callback());
     }
 
     public void finishCallback() {
@@ -20,7 +23,13 @@ public class HookManager implements Hooks {
         }
     }
 
-    public void fire(HookType type, Consumer<Callback> callback) {
-        callback.accept(this.events.get(type));
+    public @Nullable Consumer<PrintableToken> pre(HookType type) {
+        Consumer<PrintableToken> pre = this.events.getOrDefault(type, Callback.NO_OP).pre();
+        return pre == Callback.NO_OP.pre() ? null : pre;
+    }
+
+    public @Nullable Consumer<PrintableToken> post(HookType type) {
+        Consumer<PrintableToken> post = this.events.getOrDefault(type, Callback.NO_OP).post();
+        return post == Callback.NO_OP.post() ? null : post;
     }
 }
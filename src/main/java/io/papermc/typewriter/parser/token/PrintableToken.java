@@ -9,4 +9,6 @@ public sealed interface PrintableToken extends Token permits CharToken, CharSequ
     int column();
 
     int pos();
+
+    int endPos();
 }
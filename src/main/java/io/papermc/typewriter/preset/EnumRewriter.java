@@ -4,7 +4,7 @@ import com.google.common.base.Preconditions;
 import io.papermc.typewriter.preset.model.EnumConstant;
 import io.papermc.typewriter.replace.SearchMetadata;
 import io.papermc.typewriter.replace.SearchReplaceRewriter;
-import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import io.papermc.typewriter.util.CodeSink;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.jetbrains.annotations.Contract;
 
@@ -13,7 +13,7 @@ import java.util.Objects;
 
 public abstract class EnumRewriter<T> extends SearchReplaceRewriter {
 
-    private @MonotonicNonNull Iterator<T> values;
+    private @Nullable Iterator<T> values;
     protected @Nullable Boolean reachEnd;
 
     @Contract(value = "_ -> this", mutates = "this")
@@ -29,7 +29,7 @@ public abstract class EnumRewriter<T> extends SearchReplaceRewriter {
     protected void rewriteConstant(EnumConstant.Builder builder, T value) {
     }
 
-    protected void appendConstant(T value, StringBuilder builder, String indent, boolean reachEnd) {
+    protected void appendConstant(T value, CodeSink builder, String indent, boolean reachEnd) {
         EnumConstant.Builder prototype = this.constantPrototype(value);
         this.rewriteConstant(prototype, value);
         prototype.build().emitCode(indent, this.indentUnit(), builder);
@@ -43,7 +43,7 @@ public abstract class EnumRewriter<T> extends SearchReplaceRewriter {
 
     private boolean canReachEnd(SearchMetadata metadata) {
         // the default behavior might fail for simple enum or with trailing comments that's why a setting exists
-        return Objects.requireNonNullElseGet(this.reachEnd, () -> metadata.replacedContent().stripTrailing().endsWith(";"));
+        return Objects.requireNonNullElseGet(this.reachEnd, () -> metadata.replacedContent().endsWithIgnoringWhitespace(";"));
     }
 
     private void populateValues() {
@@ -52,15 +52,25 @@ public abstract class EnumRewriter<T> extends SearchReplaceRewriter {
         }
     }
 
+    @Override
+    protected void reset() {
+        this.values = null;
+    }
+
     @Override
     protected void replaceLine(SearchMetadata metadata, StringBuilder builder) {
         this.populateValues();
         Preconditions.checkState(this.values.hasNext(), "Enum size doesn't match between generated values and replaced values.");
-        appendConstant(this.values.next(), builder, metadata.indent(), this.canReachEnd(metadata));
+        appendConstant(this.values.next(), CodeSink.of(builder), metadata.indent(), this.canReachEnd(metadata));
     }
 
     @Override
     protected void insert(SearchMetadata metadata, StringBuilder builder) {
+        this.insert(metadata, CodeSink.of(builder));
+    }
+
+    @Override
+    protected void insert(SearchMetadata metadata, CodeSink builder) {
         this.populateValues();
         boolean reachEnd = this.canReachEnd(metadata);
 
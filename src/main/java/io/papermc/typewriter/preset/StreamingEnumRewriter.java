@@ -0,0 +1,187 @@
+package io.papermc.typewriter.preset;
+
+import com.google.common.base.Preconditions;
+import io.papermc.typewriter.preset.model.CodeBlock;
+import io.papermc.typewriter.preset.model.CodeTemplate;
+import io.papermc.typewriter.replace.SearchMetadata;
+import io.papermc.typewriter.replace.SearchReplaceRewriter;
+import io.papermc.typewriter.util.CodeSink;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.jetbrains.annotations.Contract;
+
+import java.util.Objects;
+import java.util.Spliterator;
+
+/**
+ * An enum rewriter writing each constant straight into the output without
+ * building an intermediate model, meant for very large value sets.
+ * The constants are written through a single {@link ConstantWriter} reused
+ * for all the values. Only the regular replacement is supported.
+ *
+ * @param <T> the type of the values
+ * @see EnumRewriter
+ */
+public abstract class StreamingEnumRewriter<T> extends SearchReplaceRewriter {
+
+    private static final int ESTIMATED_CONSTANT_SIZE = 32;
+
+    protected @Nullable Boolean reachEnd;
+
+    @Contract(value = "_ -> this", mutates = "this")
+    public StreamingEnumRewriter<T> reachEnd(boolean reachEnd) {
+        this.reachEnd = reachEnd;
+        return this;
+    }
+
+    /**
+     * Gets the values to write, the size is used to presize a string builder
+     * output when known. The segmented output of the splice grows without
+     * copy and doesn't need it. A stream can be passed with
+     * {@link java.util.stream.Stream#spliterator()}.
+     *
+     * @return the values
+     */
+    protected abstract Spliterator<T> getValues();
+
+    /**
+     * Writes the enum constant of a value.
+     *
+     * @param value the value
+     * @param writer the constant writer, only valid during this call
+     */
+    protected abstract void writeConstant(T value, ConstantWriter writer);
+
+    private boolean canReachEnd(SearchMetadata metadata) {
+        return Objects.requireNonNullElseGet(this.reachEnd, () -> metadata.replacedContent().endsWithIgnoringWhitespace(";"));
+    }
+
+    @Override
+    protected void insert(SearchMetadata metadata, StringBuilder builder) {
+        Spliterator<T> values = this.getValues();
+        long size = values.getExactSizeIfKnown();
+        if (size > 0) {
+            builder.ensureCapacity((int) Math.min(builder.length() + size * (metadata.indent().length() + ESTIMATED_CONSTANT_SIZE), Integer.MAX_VALUE - 8));
+        }
+        this.insert(metadata, values, CodeSink.of(builder));
+    }
+
+    @Override
+    protected void insert(SearchMetadata metadata, CodeSink builder) {
+        this.insert(metadata, this.getValues(), builder);
+    }
+
+    private void insert(SearchMetadata metadata, Spliterator<T> values, CodeSink builder) {
+        ConstantWriter writer = new ConstantWriter(this, builder, metadata.indent());
+        values.forEachRemaining(value -> {
+            if (writer.count > 0) {
+                builder.append(',');
+                builder.append('\n');
+            }
+            writer.start();
+            this.writeConstant(value, writer);
+            writer.end();
+        });
+
+        if (writer.count > 0) {
+            builder.append(this.canReachEnd(metadata) ? ';' : ',');
+            builder.append('\n');
+        }
+    }
+
+    /**
+     * Writes one enum constant at a time directly in the output.
+     * The name must be written first.
+     */
+    public static final class ConstantWriter {
+
+        private final SearchReplaceRewriter rewriter;
+        private final CodeSink builder;
+        private final String indent;
+        private @Nullable String bodyIndent;
+        private int count;
+
+        private boolean named;
+        private boolean openArguments;
+        private boolean hasBody;
+
+        private ConstantWriter(SearchReplaceRewriter rewriter, CodeSink builder, String indent) {
+            this.rewriter = rewriter;
+            this.builder = builder;
+            this.indent = indent;
+        }
+
+        private void start() {
+            this.named = false;
+            this.openArguments = false;
+            this.hasBody = false;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public ConstantWriter name(CharSequence name) {
+            Preconditions.checkState(!this.named, "Constant name is already written");
+            this.builder.append(this.indent).append(name);
+            this.named = true;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public ConstantWriter argument(CharSequence argument) {
+            Preconditions.checkState(this.named && !this.hasBody, "Constant arguments must be written after the name and before the body");
+            this.builder.append(this.openArguments ? ", " : "(").append(argument);
+            this.openArguments = true;
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public ConstantWriter arguments(CharSequence... arguments) {
+            for (CharSequence argument : arguments) {
+                this.argument(argument);
+            }
+            return this;
+        }
+
+        @Contract(value = "_ -> this", mutates = "this")
+        public ConstantWriter body(CodeBlock body) {
+            Preconditions.checkState(this.named && !this.hasBody, "Constant body must be written once after the name");
+            this.closeArguments();
+            this.builder.append(" {");
+            this.builder.append('\n');
+            body.emitCode(this.bodyIndent(), this.rewriter.indentUnit(), this.builder);
+            this.builder.append(this.indent).append('}');
+            this.hasBody = true;
+            return this;
+        }
+
+        @Contract(value = "_, _ -> this", mutates = "this")
+        public ConstantWriter body(CodeTemplate body, @Nullable Object... args) {
+            Preconditions.checkState(this.named && !this.hasBody, "Constant body must be written once after the name");
+            this.closeArguments();
+            this.builder.append(" {");
+            this.builder.append('\n');
+            body.emit(this.bodyIndent(), this.rewriter.indentUnit(), this.builder, args);
+            this.builder.append(this.indent).append('}');
+            this.hasBody = true;
+            return this;
+        }
+
+        private String bodyIndent() {
+            if (this.bodyIndent == null) {
+                this.bodyIndent = this.indent + this.rewriter.indentUnit().content();
+            }
+            return this.bodyIndent;
+        }
+
+        private void closeArguments() {
+            if (this.openArguments) {
+                this.builder.append(')');
+                this.openArguments = false;
+            }
+        }
+
+        private void end() {
+            Preconditions.checkState(this.named, "Constant name is missing");
+            this.closeArguments();
+            this.count++;
+        }
+    }
+}
@@ -3,13 +3,13 @@ package io.papermc.typewriter.preset;
 import com.google.common.base.Preconditions;
 import io.papermc.typewriter.replace.SearchMetadata;
 import io.papermc.typewriter.replace.SearchReplaceRewriter;
-import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.Iterator;
 
 public abstract class SwitchCaseRewriter extends SearchReplaceRewriter {
 
-    private @MonotonicNonNull Iterator<String> cases;
+    private @Nullable Iterator<String> cases;
 
     protected abstract Iterable<String> getCases();
 
@@ -24,6 +24,11 @@ public abstract class SwitchCaseRewriter extends SearchReplaceRewriter {
         builder.append('\n');
     }
 
+    @Override
+    protected void reset() {
+        this.cases = null;
+    }
+
     @Override
     protected void replaceLine(SearchMetadata metadata, StringBuilder builder) {
         this.populateCases();
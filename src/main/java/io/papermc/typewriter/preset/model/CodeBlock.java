@@ -1,6 +1,7 @@
 package io.papermc.typewriter.preset.model;
 
 import io.papermc.typewriter.context.IndentUnit;
+import io.papermc.typewriter.util.CodeSink;
 import io.papermc.typewriter.parser.StringReader;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.jetbrains.annotations.Contract;
@@ -14,12 +15,17 @@ import java.util.Objects;
 import java.util.TreeMap;
 import java.util.regex.Pattern;
 
+/**
+ * A block of code lines. Identical blocks can be shared between the models,
+ * see the {@code typewriter.model.intern} system property.
+ */
 public class CodeBlock implements CodeEmitter {
 
     private static final Pattern LINE_BREAK_PATTERN = Pattern.compile("\\R");
 
     private final List<String> lines;
     private @Nullable IndentTokens indentTokens;
+    private int hash; // cached, the block is immutable once created
 
     private CodeBlock(List<String> lines) {
         this.lines = List.copyOf(lines);
@@ -30,12 +36,12 @@ public class CodeBlock implements CodeEmitter {
         this.indentTokens = indentTokens;
     }
 
-    @Contract(value = "_, _ -> new", pure = true)
+    @Contract(value = "_, _ -> !null", pure = true)
     public static CodeBlock from(IndentUnit indentUnit, String content) {
         return from(indentUnit, LINE_BREAK_PATTERN.split(content, -1));
     }
 
-    @Contract(value = "_, _ -> new", pure = true)
+    @Contract(value = "_, _ -> !null", pure = true)
     public static CodeBlock from(IndentUnit indentUnit, String... lines) {
         List<String> newlines = new ArrayList<>(lines.length);
         @Nullable IndentTokens indentTokens = new IndentTokens();
@@ -63,16 +69,16 @@ public class CodeBlock implements CodeEmitter {
             indentTokens = null;
         }
 
-        return new CodeBlock(newlines, indentTokens);
+        return ModelInterner.intern(new CodeBlock(newlines, indentTokens));
     }
 
     // support $> $< to indent the code using provided indent unit
-    @Contract(value = "_ -> new", pure = true)
+    @Contract(value = "_ -> !null", pure = true)
     public static CodeBlock format(String content) {
         return format(LINE_BREAK_PATTERN.split(content, -1));
     }
 
-    @Contract(value = "_ -> new", pure = true)
+    @Contract(value = "_ -> !null", pure = true)
     public static CodeBlock format(String... lines) {
         ArrayList<String> newlines = new ArrayList<>(lines.length);
         int level = 0;
@@ -116,17 +122,17 @@ public class CodeBlock implements CodeEmitter {
             indentTokens = null;
         }
 
-        return new CodeBlock(newlines, indentTokens);
+        return ModelInterner.intern(new CodeBlock(newlines, indentTokens));
     }
 
-    @Contract(value = "_ -> new", pure = true)
+    @Contract(value = "_ -> !null", pure = true)
     public static CodeBlock of(String content) {
         return of(LINE_BREAK_PATTERN.split(content, -1));
     }
 
-    @Contract(value = "_ -> new", pure = true)
+    @Contract(value = "_ -> !null", pure = true)
     public static CodeBlock of(String... lines) {
-        return new CodeBlock(Arrays.asList(lines));
+        return ModelInterner.intern(new CodeBlock(Arrays.asList(lines)));
     }
 
     public List<String> lines() {
@@ -139,14 +145,14 @@ public class CodeBlock implements CodeEmitter {
     }
 
     @Override
-    public void emitCode(String indent, IndentUnit indentUnit, StringBuilder builder) {
+    public void emitCode(String indent, IndentUnit indentUnit, CodeSink builder) {
         for (int i = 0, size = this.lines.size(); i < size; i++) {
             final String line = this.lines.get(i);
 
             if (!line.isEmpty()) { // empty line doesn't need indentation (this could be configurable)
                 builder.append(indent);
                 if (this.indentTokens != null) {
-                    builder.append(indentUnit.content().repeat(this.indentTokens.getLevel(i)));
+                    builder.append(indentUnit.indentation(this.indentTokens.getLevel(i)));
                 }
                 builder.append(line);
             }
@@ -160,12 +166,19 @@ public class CodeBlock implements CodeEmitter {
         if (o == this) return true;
         if (o == null || o.getClass() != this.getClass()) return false;
         CodeBlock other = (CodeBlock) o;
-        return this.lines.equals(other.lines());
+        return this.hashCode() == other.hashCode() &&
+            this.lines.equals(other.lines()) &&
+            Objects.equals(this.indentTokens, other.indentTokens);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(this.lines);
+        int hash = this.hash;
+        if (hash == 0) {
+            hash = Objects.hash(this.lines, this.indentTokens);
+            this.hash = hash;
+        }
+        return hash;
     }
 
     private static class IndentTokens {
@@ -191,5 +204,17 @@ public class CodeBlock implements CodeEmitter {
         boolean isEmpty() {
             return this.tokens.isEmpty();
         }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) return true;
+            if (o == null || o.getClass() != this.getClass()) return false;
+            return this.tokens.equals(((IndentTokens) o).tokens);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.tokens.hashCode();
+        }
     }
 }
@@ -1,8 +1,13 @@
 package io.papermc.typewriter.preset.model;
 
 import io.papermc.typewriter.context.IndentUnit;
+import io.papermc.typewriter.util.CodeSink;
 
 public interface CodeEmitter {
 
-    void emitCode(String indent, IndentUnit indentUnit, StringBuilder builder);
+    void emitCode(String indent, IndentUnit indentUnit, CodeSink sink);
+
+    default void emitCode(String indent, IndentUnit indentUnit, StringBuilder builder) {
+        this.emitCode(indent, indentUnit, CodeSink.of(builder));
+    }
 }
@@ -0,0 +1,190 @@
+package io.papermc.typewriter.preset.model;
+
+import com.google.common.base.Preconditions;
+import io.papermc.typewriter.context.IndentUnit;
+import io.papermc.typewriter.util.CodeSink;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.jetbrains.annotations.Contract;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * A code template parsed once and emitted many times with different arguments.
+ * <br>
+ * The template uses the same {@code $>} and {@code $<} indentation tokens than
+ * {@link CodeBlock#format(String)} and the following placeholders, filled in
+ * order by the arguments:
+ * <ul>
+ *     <li>{@code $L} for a literal, written with {@link String#valueOf(Object)}</li>
+ *     <li>{@code $S} for a string, written as a Java string literal ({@code null} is kept as is)</li>
+ *     <li>{@code $$} for a dollar sign</li>
+ * </ul>
+ */
+public final class CodeTemplate {
+
+    private static final Pattern LINE_BREAK_PATTERN = Pattern.compile("\\R");
+
+    private final Line[] lines;
+    private final int slotCount;
+
+    // literals surround the slots: literal[0] slot[0] literal[1] ... literal[n]
+    private record Line(int level, String[] literals, char[] slots) {
+
+        boolean isEmpty() {
+            return this.slots.length == 0 && this.literals[0].isEmpty();
+        }
+    }
+
+    private CodeTemplate(Line[] lines, int slotCount) {
+        this.lines = lines;
+        this.slotCount = slotCount;
+    }
+
+    @Contract(value = "_ -> new", pure = true)
+    public static CodeTemplate compile(String template) {
+        String[] rawLines = LINE_BREAK_PATTERN.split(template, -1);
+        List<Line> lines = new ArrayList<>(rawLines.length);
+        int level = 0;
+        int slotCount = 0;
+        for (String rawLine : rawLines) {
+            int cursor = 0;
+            while (cursor + 1 < rawLine.length() && rawLine.charAt(cursor) == '$') {
+                char c = rawLine.charAt(cursor + 1);
+                if (c == '>') {
+                    level++;
+                } else if (c == '<') {
+                    level--;
+                } else {
+                    break;
+                }
+                cursor += 2;
+            }
+
+            if (level < 0) {
+                throw new IllegalStateException("Cannot remove one level of indentation further. This might happens if you have more '$<' than '$>' for a given line.");
+            }
+            if (cursor != 0 && cursor == rawLine.length()) {
+                continue; // same as CodeBlock#format, the line is ignored after the token
+            }
+
+            Line line = parseLine(rawLine, cursor, level);
+            slotCount += line.slots().length;
+            lines.add(line);
+        }
+
+        return new CodeTemplate(lines.toArray(Line[]::new), slotCount);
+    }
+
+    private static Line parseLine(String line, int start, int level) {
+        List<String> literals = new ArrayList<>(1);
+        StringBuilder slots = new StringBuilder();
+        StringBuilder literal = new StringBuilder(line.length() - start);
+        for (int i = start; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c != '$') {
+                literal.append(c);
+                continue;
+            }
+
+            Preconditions.checkArgument(i + 1 < line.length(), "Dangling '$' at the end of the line: %s", line);
+            char type = line.charAt(++i);
+            switch (type) {
+                case '$' -> literal.append('$');
+                case 'L', 'S' -> {
+                    literals.add(literal.toString());
+                    literal.setLength(0);
+                    slots.append(type);
+                }
+                default -> throw new IllegalArgumentException("Unknown placeholder '$%s' in the line: %s".formatted(type, line));
+            }
+        }
+        literals.add(literal.toString());
+        return new Line(level, literals.toArray(String[]::new), slots.toString().toCharArray());
+    }
+
+    public int slotCount() {
+        return this.slotCount;
+    }
+
+    /**
+     * Emits the template filled with the arguments, without building an
+     * intermediate code block.
+     *
+     * @param indent the base indentation
+     * @param indentUnit the indent unit used by the indentation tokens
+     * @param sink the output
+     * @param args the arguments of the placeholders
+     */
+    public void emit(String indent, IndentUnit indentUnit, CodeSink sink, @Nullable Object... args) {
+        Preconditions.checkArgument(args.length == this.slotCount, "Expected %s argument(s) but got %s", this.slotCount, args.length);
+        int argIndex = 0;
+        for (Line line : this.lines) {
+            if (!line.isEmpty()) { // empty line doesn't need indentation
+                sink.append(indent);
+                if (line.level() > 0) {
+                    sink.append(indentUnit.indentation(line.level()));
+                }
+
+                String[] literals = line.literals();
+                char[] slots = line.slots();
+                sink.append(literals[0]);
+                for (int i = 0; i < slots.length; i++) {
+                    @Nullable Object arg = args[argIndex++];
+                    if (slots[i] == 'S') {
+                        appendString(sink, arg);
+                    } else {
+                        sink.append(String.valueOf(arg));
+                    }
+                    sink.append(literals[i + 1]);
+                }
+            }
+            sink.append('\n');
+        }
+    }
+
+    public void emit(String indent, IndentUnit indentUnit, StringBuilder builder, @Nullable Object... args) {
+        this.emit(indent, indentUnit, CodeSink.of(builder), args);
+    }
+
+    /**
+     * Binds the arguments to this template.
+     *
+     * @param args the arguments of the placeholders
+     * @return the code emitter of the filled template
+     */
+    @Contract(value = "_ -> new", pure = true)
+    public CodeEmitter with(@Nullable Object... args) {
+        Preconditions.checkArgument(args.length == this.slotCount, "Expected %s argument(s) but got %s", this.slotCount, args.length);
+        return (indent, indentUnit, sink) -> this.emit(indent, indentUnit, sink, args);
+    }
+
+    private static void appendString(CodeSink sink, @Nullable Object value) {
+        if (value == null) {
+            sink.append("null");
+            return;
+        }
+
+        String string = value.toString();
+        sink.append('"');
+        for (int i = 0, length = string.length(); i < length; i++) {
+            char c = string.charAt(i);
+            switch (c) {
+                case '"' -> sink.append("\\\"");
+                case '\\' -> sink.append("\\\\");
+                case '\n' -> sink.append("\\n");
+                case '\r' -> sink.append("\\r");
+                case '\t' -> sink.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sink.append("\\u%04x".formatted((int) c));
+                    } else {
+                        sink.append(c);
+                    }
+                }
+            }
+        }
+        sink.append('"');
+    }
+}
@@ -1,6 +1,7 @@
 package io.papermc.typewriter.preset.model;
 
 import io.papermc.typewriter.context.IndentUnit;
+import io.papermc.typewriter.util.CodeSink;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.jetbrains.annotations.Contract;
 
@@ -28,10 +29,17 @@ public record EnumConstant(String name, List<String> arguments, @Nullable CodeBl
     }
 
     @Override
-    public void emitCode(String indent, IndentUnit indentUnit, StringBuilder builder) {
+    public void emitCode(String indent, IndentUnit indentUnit, CodeSink builder) {
         builder.append(indent).append(this.name);
         if (!this.arguments.isEmpty()) {
-            builder.append('(').append(String.join(", ", this.arguments)).append(')');
+            builder.append('(');
+            for (int i = 0, size = this.arguments.size(); i < size; i++) {
+                if (i > 0) {
+                    builder.append(", ");
+                }
+                builder.append(this.arguments.get(i));
+            }
+            builder.append(')');
         }
 
         if (this.body != null) {
@@ -87,7 +95,11 @@ public record EnumConstant(String name, List<String> arguments, @Nullable CodeBl
 
         @Contract(value = "-> new", pure = true)
         public EnumConstant build() {
-            return new EnumConstant(this.nameTransformer.apply(this.name), this.arguments, this.body);
+            return new EnumConstant(
+                this.nameTransformer.apply(this.name),
+                ModelInterner.internArguments(this.arguments),
+                this.body == null ? null : ModelInterner.intern(this.body)
+            );
         }
     }
 }
@@ -0,0 +1,40 @@
+package io.papermc.typewriter.preset.model;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import org.jetbrains.annotations.VisibleForTesting;
+
+import java.util.List;
+
+/**
+ * Shares the identical code blocks and enum constant arguments between
+ * the models, only when the {@code typewriter.model.intern} system property
+ * is set to {@code true}. Interned instances are weakly referenced.
+ */
+final class ModelInterner {
+
+    private static final Interner<CodeBlock> CODE_BLOCKS = Interners.newWeakInterner();
+    private static final Interner<List<String>> ARGUMENTS = Interners.newWeakInterner();
+
+    private static volatile boolean enabled = Boolean.getBoolean("typewriter.model.intern");
+
+    static boolean isEnabled() {
+        return enabled;
+    }
+
+    @VisibleForTesting
+    static void setEnabled(boolean enabled) {
+        ModelInterner.enabled = enabled;
+    }
+
+    static CodeBlock intern(CodeBlock block) {
+        return isEnabled() ? CODE_BLOCKS.intern(block) : block;
+    }
+
+    static List<String> internArguments(List<String> arguments) {
+        return isEnabled() && !arguments.isEmpty() ? ARGUMENTS.intern(List.copyOf(arguments)) : arguments;
+    }
+
+    private ModelInterner() {
+    }
+}
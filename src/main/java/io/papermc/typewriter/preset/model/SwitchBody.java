@@ -2,6 +2,7 @@ package io.papermc.typewriter.preset.model;
 
 import com.google.common.base.Preconditions;
 import io.papermc.typewriter.context.IndentUnit;
+import io.papermc.typewriter.util.CodeSink;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.jetbrains.annotations.Contract;
 
@@ -9,7 +10,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -61,26 +62,18 @@ public class SwitchBody implements CodeEmitter {
         List<SwitchCases> cases = new ArrayList<>();
 
         List<SwitchCases> nonDefaultCases = new ArrayList<>();
-        Map<CodeBlock, SwitchCases.SwitchCasesChain> stats = new HashMap<>();
+        Map<CodeBlock, SwitchCases.SwitchCasesChain> stats = new LinkedHashMap<>(); // keep the order of the first occurrence
         @Nullable CodeBlock defaultValue = this.defaultCase == null ? null : this.defaultCase.body();
 
         // merge similar cases, and omit cases similar to the default
         for (SwitchCases branch : this.cases) {
             CodeBlock body = branch.body();
 
-            if (defaultValue == null || !Objects.equals(branch.body(), defaultValue)) {
+            if (defaultValue == null || !Objects.equals(body, defaultValue)) {
                 nonDefaultCases.add(branch);
 
-                final SwitchCases.SwitchCasesChain newCases;
-                if (stats.containsKey(body)) {
-                    newCases = stats.get(body);
-                } else {
-                    newCases = SwitchCases.chain();
-                    newCases.sortLabels(keySort);
-                }
-                newCases.addAll(Objects.requireNonNull(branch.labels()));
-
-                stats.put(body, newCases);
+                stats.computeIfAbsent(body, key -> SwitchCases.chain().sortLabels(keySort))
+                    .addAll(Objects.requireNonNull(branch.labels()));
             }
         }
 
@@ -110,7 +103,7 @@ public class SwitchBody implements CodeEmitter {
     }
 
     @Override
-    public void emitCode(String indent, IndentUnit indentUnit, StringBuilder builder) {
+    public void emitCode(String indent, IndentUnit indentUnit, CodeSink builder) {
         for (SwitchCases cases : this.cases) {
             cases.emitCode(indent, indentUnit, builder);
         }
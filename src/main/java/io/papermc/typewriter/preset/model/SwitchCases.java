@@ -2,6 +2,7 @@ package io.papermc.typewriter.preset.model;
 
 import com.google.common.base.Preconditions;
 import io.papermc.typewriter.context.IndentUnit;
+import io.papermc.typewriter.util.CodeSink;
 import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.jetbrains.annotations.Contract;
@@ -11,7 +12,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -55,7 +56,7 @@ public record SwitchCases(@Nullable List<String> labels, CodeBlock body, boolean
     }
 
     @Override
-    public void emitCode(String indent, IndentUnit indentUnit, StringBuilder builder) {
+    public void emitCode(String indent, IndentUnit indentUnit, CodeSink builder) {
         boolean needCurlyBrackets = false;
         boolean indentBody = true;
         if (this.labels != null && !this.inlined) {
@@ -99,7 +100,7 @@ public record SwitchCases(@Nullable List<String> labels, CodeBlock body, boolean
 
     public static final class SwitchCasesChain {
 
-        private final Set<String> labels = new HashSet<>();
+        private final Set<String> labels = new LinkedHashSet<>();
         private @Nullable Comparator<? super String> comparator;
         private @MonotonicNonNull CodeBlock body;
         private boolean inlined;
@@ -1,5 +1,6 @@
 package io.papermc.typewriter.registration;
 
+import io.papermc.typewriter.RewrittenFile;
 import io.papermc.typewriter.SourceFile;
 import io.papermc.typewriter.SourceRewriter;
 import org.jetbrains.annotations.VisibleForTesting;
@@ -16,4 +17,19 @@ public interface SourceSetRewriter<T extends SourceSetRewriter<T>> {
     T register(SourceFile source, SourceRewriter rewriter);
 
     void apply(Path output) throws IOException;
+
+    /**
+     * Applies the registered rewriters without writing anything,
+     * the rewritten files can be checked against the disk with
+     * {@link RewrittenFile#isUpToDate()}. The output cache is only read.
+     * <br>
+     * The files are rewritten one after the other: a rewriter keeps the state
+     * of the file it is applied to until the next one, so a source set cannot
+     * be rewritten concurrently either.
+     *
+     * @param output the source set path
+     * @return the rewritten files
+     * @throws IOException if an I/O error occur
+     */
+    Map<SourceFile, RewrittenFile> rewrite(Path output) throws IOException;
 }
@@ -1,14 +1,17 @@
 package io.papermc.typewriter.registration;
 
+import io.papermc.typewriter.RewrittenFile;
 import io.papermc.typewriter.SourceFile;
 import io.papermc.typewriter.SourceRewriter;
 import io.papermc.typewriter.context.SourcesMetadata;
 import io.papermc.typewriter.util.ClassNamedView;
 import io.papermc.typewriter.util.ClassResolver;
+import io.papermc.typewriter.util.SafeFiles;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.framework.qual.DefaultQualifier;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
 import java.util.LinkedHashMap;
@@ -43,9 +46,36 @@ public class SourceSetRewriterImpl<T extends SourceSetRewriter<T>> implements So
     public void apply(Path output) throws IOException {
         final ClassResolver resolver = this.makeResolver(this.metadata.classpath());
         final ClassNamedView view = new ClassNamedView(output, 20, null);
+        // stage everything first so that a failing rewriter doesn't leave the source set half-regenerated
+        Map<Path, Path> stagedFiles = new LinkedHashMap<>(); // staged file -> destination
+        try {
+            for (Map.Entry<SourceFile, SourceRewriter> rewriter : this.rewrites.entrySet()) {
+                RewrittenFile file = rewriter.getValue().rewrite(output, this.metadata, resolver, view, rewriter.getKey());
+                if (file.changed()) {
+                    stagedFiles.put(file.stage(), file.destination());
+                }
+            }
+
+            for (Map.Entry<Path, Path> stagedFile : stagedFiles.entrySet()) {
+                SafeFiles.commit(stagedFile.getKey(), stagedFile.getValue());
+            }
+        } finally {
+            for (Path stagedFile : stagedFiles.keySet()) {
+                Files.deleteIfExists(stagedFile);
+            }
+        }
+    }
+
+    @Override
+    public Map<SourceFile, RewrittenFile> rewrite(Path output) throws IOException {
+        final ClassResolver resolver = this.makeResolver(this.metadata.classpath());
+        final ClassNamedView view = new ClassNamedView(output, 20, null);
+        final SourcesMetadata metadata = this.metadata.asDryRun();
+        Map<SourceFile, RewrittenFile> files = new LinkedHashMap<>(this.rewrites.size());
         for (Map.Entry<SourceFile, SourceRewriter> rewriter : this.rewrites.entrySet()) {
-            rewriter.getValue().writeToFile(output, this.metadata, resolver, view, rewriter.getKey());
+            files.put(rewriter.getKey(), rewriter.getValue().rewrite(output, metadata, resolver, view, rewriter.getKey()));
         }
+        return Collections.unmodifiableMap(files);
     }
 
     private ClassResolver makeResolver(Set<Path> classpath) {
@@ -1,12 +1,13 @@
 package io.papermc.typewriter.replace;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.jetbrains.annotations.ApiStatus;
 
 @ApiStatus.Internal
-public record CommentMarker(SearchReplaceRewriter owner, int indentSize) {
+public record CommentMarker(SearchReplaceRewriter owner, int indentSize, @Nullable String checksum) {
 
     private CommentMarker() {
-        this(null, 0);
+        this(null, 0, null);
     }
 
     public static final CommentMarker EMPTY_MARKER = new CommentMarker();
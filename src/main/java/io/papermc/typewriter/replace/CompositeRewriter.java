@@ -49,6 +49,9 @@ public class CompositeRewriter extends SearchReplaceRewriterBase {
 
         for (SearchReplaceRewriter rewriter : rewriters) {
             Preconditions.checkArgument(rewriter.options != null, "Replace options are not defined!");
+            if (rewriter.options.structuralTarget().isPresent()) {
+                continue;
+            }
 
             String startCommentMarker = rewriter.options.startCommentMarker();
             String endCommentMarker = rewriter.options.endCommentMarker();
@@ -0,0 +1,82 @@
+package io.papermc.typewriter.replace;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import io.papermc.typewriter.context.ImportNameCollector;
+import io.papermc.typewriter.util.SafeFiles;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Stores the content generated by the rewriters declaring a fingerprint on
+ * disk, one file per entry. An entry is keyed by the rewriter, its options,
+ * the indent, the fingerprint and the file with its import section since
+ * the short names of the generated content depend on the existing imports.
+ * <br>
+ * Only the inserts made while no import has been added to the file yet
+ * and that didn't add any are stored, so replaying them cannot miss an import.
+ * During a dry run, the entries are only read.
+ */
+@DefaultQualifier(NonNull.class)
+final class OutputCache {
+
+    private final Path directory;
+    private final String fileContext;
+    private final ImportNameCollector collector;
+    private final boolean readOnly;
+
+    OutputCache(Path directory, String fileContext, ImportNameCollector collector, boolean readOnly) {
+        this.directory = directory;
+        this.fileContext = fileContext;
+        this.collector = collector;
+        this.readOnly = readOnly;
+    }
+
+    private Path entry(SearchReplaceRewriter rewriter, SearchMetadata metadata, String fingerprint) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putString(this.fileContext, StandardCharsets.UTF_8).putByte((byte) 0);
+        hasher.putString(rewriter.getName(), StandardCharsets.UTF_8).putByte((byte) 0);
+        hasher.putString(rewriter.getClass().getName(), StandardCharsets.UTF_8).putByte((byte) 0);
+        hasher.putString(rewriter.options.toString(), StandardCharsets.UTF_8).putByte((byte) 0);
+        hasher.putString(metadata.indent(), StandardCharsets.UTF_8).putByte((byte) 0);
+        hasher.putString(fingerprint, StandardCharsets.UTF_8);
+        return this.directory.resolve(hasher.hash() + ".txt");
+    }
+
+    /**
+     * Inserts the content generated by a rewriter, replayed from the cache
+     * when the rewriter declares a fingerprint.
+     *
+     * @param rewriter the rewriter
+     * @param metadata the metadata of the insert
+     * @param builder the replacement to append the content into
+     * @throws IOException if an I/O error occur
+     */
+    void insert(SearchReplaceRewriter rewriter, SearchMetadata metadata, SourceSplice.Replacement builder) throws IOException {
+        @Nullable String fingerprint = rewriter.fingerprint();
+        if (fingerprint == null) {
+            rewriter.insert(metadata, builder);
+            return;
+        }
+
+        Path entry = this.entry(rewriter, metadata, fingerprint);
+        if (Files.isRegularFile(entry)) {
+            builder.append(Files.readString(entry, StandardCharsets.UTF_8));
+            return;
+        }
+
+        boolean modifiedImports = this.collector.isModified();
+        int start = builder.length();
+        rewriter.insert(metadata, builder);
+        if (!this.readOnly && !modifiedImports && !this.collector.isModified()) {
+            CharSequence content = builder.subSequence(start, builder.length());
+            SafeFiles.write(entry, writer -> writer.append(content));
+        }
+    }
+}
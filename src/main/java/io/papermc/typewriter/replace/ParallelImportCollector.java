@@ -0,0 +1,59 @@
+package io.papermc.typewriter.replace;
+
+import io.papermc.typewriter.ClassNamed;
+import io.papermc.typewriter.context.ImportCategory;
+import io.papermc.typewriter.context.ImportCollector;
+import io.papermc.typewriter.context.ImportName;
+import io.papermc.typewriter.context.ImportNameCollector;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+// the import collector of the rewriters inserting in parallel, no import can be added
+// since the imported type would depend on which rewriter reaches the collector first
+@DefaultQualifier(NonNull.class)
+record ParallelImportCollector(ImportNameCollector delegate, SearchReplaceRewriter rewriter) implements ImportCollector {
+
+    private IllegalStateException cannotImport(String name) {
+        return new IllegalStateException("Rewriter %s inserts in parallel and cannot import %s, import it in the file or disable the parallel insert".formatted(this.rewriter.getName(), name));
+    }
+
+    @Override
+    public void addSingleImport(ClassNamed type) {
+        throw this.cannotImport(type.canonicalName());
+    }
+
+    @Override
+    public void addImport(ImportCategory<? extends ImportName> category, String name) {
+        throw this.cannotImport(name);
+    }
+
+    @Override
+    public boolean canImportSafely(ClassNamed type) {
+        synchronized (this.delegate) {
+            return this.delegate.canImportSafely(type);
+        }
+    }
+
+    @Override
+    public String getStaticMemberShortName(String packageName, String memberName) {
+        synchronized (this.delegate) {
+            return this.delegate.getStaticMemberShortName(packageName, memberName);
+        }
+    }
+
+    @Override
+    public String getShortName(ClassNamed type, boolean autoImport) {
+        synchronized (this.delegate) {
+            if (!autoImport) {
+                return this.delegate.getShortName(type, false);
+            }
+
+            @Nullable String shortName = this.delegate.getShortNameWithoutImport(type);
+            if (shortName == null) {
+                throw this.cannotImport(type.topLevel().canonicalName());
+            }
+            return shortName;
+        }
+    }
+}
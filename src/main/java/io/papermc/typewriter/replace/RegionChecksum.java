@@ -0,0 +1,65 @@
+package io.papermc.typewriter.replace;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import io.papermc.typewriter.util.CodeSink;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The checksum appended to a start comment marker, made of the hash of the
+ * rewriter inputs (fingerprint, options and indent) and the hash of the
+ * region content: {@code // <marker> (checksum 1a2b3c4d/5e6f7a8b)}.
+ * <br>
+ * A region whose checksum still matches both its inputs and its content
+ * doesn't need to be generated again.
+ */
+@DefaultQualifier(NonNull.class)
+final class RegionChecksum {
+
+    private static final String PREFIX = " (checksum ";
+    private static final int HASH_LENGTH = 8;
+    private static final int LENGTH = PREFIX.length() + HASH_LENGTH * 2 + 2;
+
+    static @Nullable String parse(String remaining) {
+        if (remaining.length() != LENGTH || !remaining.startsWith(PREFIX) || remaining.charAt(LENGTH - 1) != ')' || remaining.charAt(PREFIX.length() + HASH_LENGTH) != '/') {
+            return null;
+        }
+        return remaining.substring(PREFIX.length(), LENGTH - 1);
+    }
+
+    static @Nullable String inputHash(SearchReplaceRewriter rewriter, String indent) {
+        @Nullable String fingerprint = rewriter.fingerprint();
+        if (fingerprint == null) {
+            return null;
+        }
+
+        return Hashing.crc32c().newHasher()
+            .putString(rewriter.options.toString(), StandardCharsets.UTF_8).putByte((byte) 0)
+            .putString(indent, StandardCharsets.UTF_8).putByte((byte) 0)
+            .putString(fingerprint, StandardCharsets.UTF_8)
+            .hash().toString();
+    }
+
+    static String contentHash(CharSequence content) {
+        Hasher hasher = Hashing.crc32c().newHasher();
+        for (int i = 0, length = content.length(); i < length; i++) {
+            hasher.putChar(content.charAt(i));
+        }
+        return hasher.hash().toString();
+    }
+
+    static String of(@Nullable String inputHash, CharSequence content) {
+        return (inputHash == null ? "0".repeat(HASH_LENGTH) : inputHash) + '/' + contentHash(content);
+    }
+
+    static void appendMarker(CodeSink builder, String indent, String startMarker, String checksum) {
+        builder.append(indent).append("// ").append(startMarker).append(PREFIX).append(checksum).append(')');
+    }
+
+    private RegionChecksum() {
+    }
+}
@@ -16,11 +16,17 @@ public record ReplaceOptions(
     Optional<String> generatedComment,
     boolean exactReplacement,
     boolean multipleOperation,
-    Optional<ClassNamed> targetClass
+    Optional<ClassNamed> targetClass,
+    Optional<StructuralTarget> structuralTarget,
+    boolean parallelInsert,
+    boolean checksum
 ) implements ReplaceOptionsLike {
 
     public ReplaceOptions {
         Preconditions.checkState(generatedComment.isEmpty() || !exactReplacement, "Generated comment is not compatible with exact replacement");
+        Preconditions.checkState(structuralTarget.isEmpty() || (generatedComment.isEmpty() && !multipleOperation), "Generated comment and multiple operation are not compatible with a structural target");
+        Preconditions.checkState(!parallelInsert || !exactReplacement, "Parallel insert is not compatible with exact replacement");
+        Preconditions.checkState(!checksum || (!exactReplacement && structuralTarget.isEmpty()), "Checksum is not compatible with exact replacement and structural target");
     }
 
     /**
@@ -50,6 +56,20 @@ public record ReplaceOptions(
         return between(commentMarker, commentMarker);
     }
 
+    /**
+     * Specify the replace options for a rewriter targeting a part of
+     * a class without comment markers.
+     *
+     * @param target the structural target
+     * @return the builder
+     * @apiNote generated comment and multiple operation are not
+     * compatible with a structural target
+     */
+    @Contract(value = "_ -> new", pure = true)
+    public static Builder at(StructuralTarget target) {
+        return new Builder(target);
+    }
+
     @Override
     public ReplaceOptions asOptions() {
         return this;
@@ -63,12 +83,22 @@ public record ReplaceOptions(
         private boolean exactReplacement;
         private boolean multipleOperation;
         private @Nullable ClassNamed targetClass;
+        private final @Nullable StructuralTarget structuralTarget;
+        private boolean parallelInsert;
+        private boolean checksum;
 
         public Builder(String startCommentMarker, String endCommentMarker) {
             Preconditions.checkArgument(!startCommentMarker.isBlank(), "Start comment marker cannot be blank!");
             Preconditions.checkArgument(!endCommentMarker.isBlank(), "End comment marker cannot be blank!");
             this.startCommentMarker = startCommentMarker;
             this.endCommentMarker = endCommentMarker;
+            this.structuralTarget = null;
+        }
+
+        private Builder(StructuralTarget structuralTarget) {
+            this.startCommentMarker = "";
+            this.endCommentMarker = "";
+            this.structuralTarget = structuralTarget;
         }
 
         /**
@@ -133,6 +163,43 @@ public record ReplaceOptions(
             return this;
         }
 
+        /**
+         * Allows the generated content to be computed on the executor of the
+         * sources metadata, once the other rewriters of the file are done. The
+         * {@link SearchReplaceRewriter#insert(SearchMetadata, StringBuilder)}
+         * callback must then only depend on its metadata and on thread safe data.
+         * <br>
+         * To keep the output independent of the thread timing, the import collector
+         * of the rewriter cannot add imports: the types must be already imported,
+         * implicitly available or conflicting with an import (in which case
+         * the fully qualified name is used).
+         *
+         * @return the builder, for chaining
+         * @apiNote parallel insert is not compatible with exact replacement
+         */
+        @Contract(value = "-> this", mutates = "this")
+        public Builder parallelInsert() {
+            this.parallelInsert = true;
+            return this;
+        }
+
+        /**
+         * Appends a checksum of the rewriter fingerprint and of the generated
+         * content to the start comment marker. When both still match, the
+         * region is left untouched without calling
+         * {@link SearchReplaceRewriter#insert(SearchMetadata, StringBuilder)}.
+         *
+         * @return the builder, for chaining
+         * @apiNote checksum is not compatible with exact replacement
+         * and structural target
+         * @see SearchReplaceRewriter#fingerprint()
+         */
+        @Contract(value = "-> this", mutates = "this")
+        public Builder checksum() {
+            this.checksum = true;
+            return this;
+        }
+
         @Override
         public ReplaceOptions asOptions() {
             return new ReplaceOptions(
@@ -141,7 +208,10 @@ public record ReplaceOptions(
                 Optional.ofNullable(this.generatedComment),
                 this.exactReplacement,
                 this.multipleOperation,
-                Optional.ofNullable(this.targetClass)
+                Optional.ofNullable(this.targetClass),
+                Optional.ofNullable(this.structuralTarget),
+                this.parallelInsert,
+                this.checksum
             );
         }
     }
@@ -0,0 +1,146 @@
+package io.papermc.typewriter.replace;
+
+import com.google.common.base.Preconditions;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.framework.qual.DefaultQualifier;
+import org.jetbrains.annotations.Contract;
+
+/**
+ * A view of the content replaced by a rewriter over the original buffer
+ * of the file. Line terminators are seen as {@code '\n'}, the content is only
+ * copied when it contains other line terminators or when converted
+ * to a string.
+ */
+@DefaultQualifier(NonNull.class)
+public final class ReplacedContent implements CharSequence {
+
+    public static final ReplacedContent EMPTY = new ReplacedContent(new char[0], 0, 0);
+
+    private final char[] source;
+    private final int start;
+    private final int end;
+
+    private boolean checked;
+    private boolean direct; // no carriage return, the source can be read as is
+    private @Nullable String content;
+
+    ReplacedContent(char[] source, int start, int end) {
+        Preconditions.checkPositionIndexes(start, end, source.length);
+        this.source = source;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Contract(value = "_ -> new", pure = true)
+    public static ReplacedContent of(CharSequence content) {
+        if (content.isEmpty()) {
+            return EMPTY;
+        }
+        char[] source = content.toString().toCharArray();
+        return new ReplacedContent(source, 0, source.length);
+    }
+
+    private boolean isDirect() {
+        if (!this.checked) {
+            this.direct = true;
+            for (int i = this.start; i < this.end; i++) {
+                if (this.source[i] == '\r') {
+                    this.direct = false;
+                    break;
+                }
+            }
+            this.checked = true;
+        }
+        return this.direct;
+    }
+
+    @Override
+    public int length() {
+        return this.isDirect() ? this.end - this.start : this.toString().length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (this.isDirect()) {
+            Preconditions.checkElementIndex(index, this.end - this.start);
+            return this.source[this.start + index];
+        }
+        return this.toString().charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (this.isDirect()) {
+            Preconditions.checkPositionIndexes(start, end, this.end - this.start);
+            return new ReplacedContent(this.source, this.start + start, this.start + end);
+        }
+        return this.toString().subSequence(start, end);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.start == this.end;
+    }
+
+    /**
+     * Checks if this content only contains whitespaces.
+     *
+     * @return {@code true} if the content is blank
+     */
+    public boolean isBlank() {
+        for (int i = this.start; i < this.end; i++) {
+            if (!Character.isWhitespace(this.source[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if this content ends with a suffix once the trailing whitespaces
+     * are removed, without copying the content.
+     *
+     * @param suffix the suffix
+     * @return {@code true} if the stripped content ends with the suffix
+     */
+    public boolean endsWithIgnoringWhitespace(String suffix) {
+        int cursor = this.end;
+        while (cursor > this.start && Character.isWhitespace(this.source[cursor - 1])) {
+            cursor--;
+        }
+        if (cursor - this.start < suffix.length()) {
+            return false;
+        }
+
+        for (int i = suffix.length() - 1; i >= 0; i--) {
+            if (this.source[--cursor] != suffix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        if (this.content == null) {
+            if (this.isDirect()) {
+                this.content = new String(this.source, this.start, this.end - this.start);
+            } else {
+                StringBuilder builder = new StringBuilder(this.end - this.start);
+                for (int i = this.start; i < this.end; i++) {
+                    char c = this.source[i];
+                    if (c == '\r') {
+                        if (i + 1 < this.end && this.source[i + 1] == '\n') {
+                            i++;
+                        }
+                        c = '\n';
+                    }
+                    builder.append(c);
+                }
+                this.content = builder.toString();
+            }
+        }
+        return this.content;
+    }
+}
@@ -7,5 +7,9 @@ package io.papermc.typewriter.replace;
  * @param replacedContent the replaced content
  * @param line            the line number approximately starting from 0 or -1 during a dump
  */
-public record SearchMetadata(String indent, String replacedContent, int line) {
+public record SearchMetadata(String indent, ReplacedContent replacedContent, int line) {
+
+    public SearchMetadata(String indent, String replacedContent, int line) {
+        this(indent, ReplacedContent.of(replacedContent), line);
+    }
 }
@@ -6,12 +6,15 @@ import io.papermc.typewriter.context.FileMetadata;
 import io.papermc.typewriter.context.ImportCollector;
 import io.papermc.typewriter.context.IndentUnit;
 import io.papermc.typewriter.context.SourcesMetadata;
-import io.papermc.typewriter.parser.Lexer;
+import io.papermc.typewriter.parser.TokenCache;
 import io.papermc.typewriter.parser.Tokenizer;
+import io.papermc.typewriter.parser.outline.SourceOutline;
 import io.papermc.typewriter.util.ClassNamedView;
 import io.papermc.typewriter.util.ClassResolver;
+import io.papermc.typewriter.util.CodeSink;
 import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.framework.qual.DefaultQualifier;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
@@ -20,6 +23,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Collections;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * The main rewriter that search for content delimited by a start and end comment marker
@@ -37,16 +41,33 @@ public class SearchReplaceRewriter extends SearchReplaceRewriterBase {
     protected @MonotonicNonNull ClassResolver classResolver;
     protected @MonotonicNonNull ClassNamedView classNamedView;
     protected @MonotonicNonNull ImportCollector importCollector;
+    protected @MonotonicNonNull Supplier<SourceOutline> sourceOutline;
 
     protected @MonotonicNonNull String name;
     protected @MonotonicNonNull ReplaceOptions options;
 
+    private @Nullable TokenCache tokenCache; // last content passed to createTokenizer
+
     public IndentUnit indentUnit() {
         return this.source.metadata().flatMap(FileMetadata::indentUnit).orElse(this.sourcesMetadata.indentUnit());
     }
 
+    /**
+     * Gets the outline of the file being rewritten, parsed on first use
+     * from the original content and shared between the rewriters of the file.
+     *
+     * @return the outline of the file
+     */
+    public SourceOutline outline() {
+        return this.sourceOutline.get();
+    }
+
     public Tokenizer createTokenizer(String content) {
-        return new Lexer(content.toCharArray());
+        char[] input = content.toCharArray();
+        if (this.tokenCache == null || !this.tokenCache.isValidFor(input)) {
+            this.tokenCache = TokenCache.lex(input);
+        }
+        return this.tokenCache.replay();
     }
 
     @Contract(value = "_ -> this", mutates = "this")
@@ -69,6 +90,52 @@ public class SearchReplaceRewriter extends SearchReplaceRewriterBase {
         return this.options;
     }
 
+    /**
+     * Called before this rewriter is applied to its file. Since a rewriter can
+     * be applied more than once (to check the files then write them), any state
+     * kept between the callbacks must be reset here.
+     */
+    @ApiStatus.OverrideOnly
+    protected void reset() {
+    }
+
+    /**
+     * Declares a fingerprint of the data used to generate the content of this
+     * rewriter (i.e. a version or a hash of the data). When an output cache is
+     * configured in the sources metadata, the content generated for the same
+     * fingerprint is replayed from the cache instead of calling
+     * {@link #insert(SearchMetadata, StringBuilder)}. The fingerprint must cover
+     * everything the content depends on except the options and the indent.
+     *
+     * @return the fingerprint or {@code null} to always generate the content
+     * @apiNote the content of a parallel insert is never cached
+     */
+    @ApiStatus.OverrideOnly
+    protected @Nullable String fingerprint() {
+        return null;
+    }
+
+    /**
+     * Inserts the generated content directly into the output. Rewriters
+     * generating large content should override this method, by default
+     * the content is generated with {@link #insert(SearchMetadata, StringBuilder)}.
+     *
+     * @param metadata the metadata of the replaced region
+     * @param sink the output
+     * @apiNote only called when exactReplacement = false
+     */
+    @ApiStatus.OverrideOnly
+    protected void insert(SearchMetadata metadata, CodeSink sink) {
+        if (sink instanceof SourceSplice.Replacement replacement) {
+            this.insert(metadata, replacement.builder());
+            return;
+        }
+
+        StringBuilder builder = new StringBuilder();
+        this.insert(metadata, builder);
+        sink.append(builder);
+    }
+
     // only when exactReplacement = false
     @ApiStatus.OverrideOnly
     protected void insert(SearchMetadata metadata, StringBuilder builder) {
@@ -106,10 +173,15 @@ public class SearchReplaceRewriter extends SearchReplaceRewriterBase {
         content.append("Name: ").append(this.name);
 
         content.append('\n');
-        content.append("Start comment marker: ").append(this.options.startCommentMarker());
-        content.append('\n');
-        content.append("End comment marker: ").append(this.options.endCommentMarker());
-        content.append('\n');
+        if (this.options.structuralTarget().isPresent()) {
+            content.append("Structural target: ").append(this.options.structuralTarget().get());
+            content.append('\n');
+        } else {
+            content.append("Start comment marker: ").append(this.options.startCommentMarker());
+            content.append('\n');
+            content.append("End comment marker: ").append(this.options.endCommentMarker());
+            content.append('\n');
+        }
         content.append('\n');
 
         if (this.options.exactReplacement()) {
@@ -118,7 +190,7 @@ public class SearchReplaceRewriter extends SearchReplaceRewriterBase {
             content.append(">".repeat(30));
             content.append('\n');
 
-            this.insert(new SearchMetadata(this.indentUnit().content(), "", -1), content);
+            this.insert(new SearchMetadata(this.indentUnit().content(), ReplacedContent.EMPTY, -1), CodeSink.of(content));
 
             content.append("<".repeat(30));
         }
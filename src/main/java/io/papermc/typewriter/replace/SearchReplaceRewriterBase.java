@@ -1,6 +1,10 @@
 package io.papermc.typewriter.replace;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Suppliers;
+import com.google.common.base.Throwables;
+import io.papermc.typewriter.ClassNamed;
+import io.papermc.typewriter.RewrittenFile;
 import io.papermc.typewriter.SourceFile;
 import io.papermc.typewriter.SourceRewriter;
 import io.papermc.typewriter.context.FileMetadata;
@@ -12,10 +16,16 @@ import io.papermc.typewriter.context.layout.ImportLayout;
 import io.papermc.typewriter.parser.ImportParser;
 import io.papermc.typewriter.parser.Lexer;
 import io.papermc.typewriter.parser.StringReader;
+import io.papermc.typewriter.parser.TokenCache;
+import io.papermc.typewriter.parser.Tokenizer;
 import io.papermc.typewriter.parser.exception.ReaderException;
+import io.papermc.typewriter.parser.outline.SourceOutline;
+import io.papermc.typewriter.parser.outline.Span;
+import io.papermc.typewriter.parser.outline.TypeOutline;
 import io.papermc.typewriter.parser.token.pos.TokenCapture;
 import io.papermc.typewriter.util.ClassNamedView;
 import io.papermc.typewriter.util.ClassResolver;
+import io.papermc.typewriter.util.SafeFiles;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.framework.qual.DefaultQualifier;
@@ -24,14 +34,24 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
-import java.io.CharArrayReader;
 import java.io.IOException;
-import java.io.LineNumberReader;
+import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static io.papermc.typewriter.replace.CommentMarker.EMPTY_MARKER;
 
@@ -41,53 +61,84 @@ public abstract class SearchReplaceRewriterBase implements SourceRewriter {
     private static final Logger LOGGER = LoggerFactory.getLogger(SearchReplaceRewriterBase.class);
 
     @Override
-    public void writeToFile(Path parent, SourcesMetadata sourcesMetadata, ClassResolver resolver, ClassNamedView view, SourceFile file) throws IOException {
+    public RewrittenFile rewrite(Path parent, SourcesMetadata sourcesMetadata, ClassResolver resolver, ClassNamedView view, SourceFile file) throws IOException {
         Path filePath = file.path();
 
         final Path path = parent.resolve(filePath);
-        Path destinationPath;
-        StringBuilder content = new StringBuilder();
 
         if (Files.isRegularFile(path)) {
-            final Lexer lex;
+            final char[] input;
             try (BufferedReader buffer = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
-                lex = Lexer.fromReader(buffer);
-                lex.checkMarkdownDocComments = !sourcesMetadata.canSkipMarkdownDocComments();
-            } catch (ReaderException ex) {
-                throw ex.withAdditionalContext(file);
+                input = Lexer.readFully(buffer);
             }
 
-            ImportNameCollector collector = collectImport(file, lex);
-            this.setup(file, sourcesMetadata, resolver, view, collector);
+            Lexer lex = Lexer.acquire(input);
+            try {
+                lex.checkMarkdownDocComments = !sourcesMetadata.canSkipMarkdownDocComments();
+                // the header tokens are recorded to be replayed when the imports are rewritten
+                TokenCache headerTokens = TokenCache.of(input, lex);
+                final ImportNameCollector collector;
+                try {
+                    collector = collectImport(file, headerTokens.replay());
+                } catch (ReaderException ex) {
+                    throw ex.withAdditionalContext(file);
+                }
+                // the outline has its own lexer since it can be requested once the pooled one is released
+                boolean checkMarkdownDocComments = lex.checkMarkdownDocComments;
+                Supplier<SourceOutline> outline = Suppliers.memoize(() -> {
+                    Lexer outlineLexer = new Lexer(input);
+                    outlineLexer.checkMarkdownDocComments = checkMarkdownDocComments;
+                    return SourceOutline.parse(input, outlineLexer);
+                });
+                this.setup(file, sourcesMetadata, resolver, view, collector, outline);
+
+                IndentUnit indentUnit = file.metadata().flatMap(FileMetadata::indentUnit).orElse(sourcesMetadata.indentUnit());
+                // the edits are made against the original content and only spliced at the end
+                SourceSplice splice = new SourceSplice(input);
+                Map<Integer, StructuralRegion> regions = this.resolveStructuralTargets(file, splice, outline, indentUnit);
+                @Nullable OutputCache cache = null;
+                if (sourcesMetadata.outputCache().isPresent()) {
+                    TokenCapture importSection = ImportParser.trackImportPosition(headerTokens.replay());
+                    String imports = importSection.start() == null ? "" : new String(input, importSection.start().cursor(), importSection.end().cursor() - importSection.start().cursor());
+                    cache = new OutputCache(sourcesMetadata.outputCache().get(), file.path() + "\n" + imports, collector, sourcesMetadata.dryRun());
+                }
+                searchAndReplace(file, indentUnit, splice, regions, cache, sourcesMetadata.executor());
 
-            try (LineNumberReader reader = new LineNumberReader(new CharArrayReader(lex.toCharArray()))) {
-                searchAndReplace(file, sourcesMetadata, reader, content);
-            }
+                if (splice.isEmpty() && !collector.isModified()) { // all the regions are up to date
+                    return new RewrittenFile(file, path, splice::writeTo, false);
+                }
 
-            if (collector.isModified()) { // if added entries
-                // rewrite the imports
-                this.rewriteImports(collector, file.metadata().flatMap(FileMetadata::layout).orElseGet(() -> sourcesMetadata.importLayoutMap().getRelevantLayout(path)), content);
+                SafeFiles.ContentWriter content = splice::writeTo;
+                if (collector.isModified()) { // if added entries
+                    // rewrite the imports
+                    content = this.rewriteImports(collector, file.metadata().flatMap(FileMetadata::layout).orElseGet(() -> sourcesMetadata.importLayoutMap().getRelevantLayout(path)), splice, headerTokens);
+                }
+                return new RewrittenFile(file, path, content);
+            } finally {
+                lex.release();
             }
-            destinationPath = path;
         } else {
             LOGGER.warn("Target source file '{}' doesn't exists, dumping rewriters data instead...", filePath);
-            this.setup(file, sourcesMetadata, resolver, view, ImportCollector.NO_OP);
+            this.setup(file, sourcesMetadata, resolver, view, ImportCollector.NO_OP, () -> SourceOutline.EMPTY);
+            StringBuilder content = new StringBuilder();
             dumpAll(file, sourcesMetadata, content);
-            filePath = filePath.resolveSibling(filePath.getFileName() + ".dump");
-            destinationPath = parent.resolve(filePath);
-            Files.createDirectories(destinationPath.getParent());
+            return new RewrittenFile(file, parent.resolve(filePath.resolveSibling(filePath.getFileName() + ".dump")), writer -> writer.append(content));
         }
-
-        Files.writeString(destinationPath, content, StandardCharsets.UTF_8);
     }
 
-    private void setup(SourceFile source, SourcesMetadata sourcesMetadata, ClassResolver classResolver, ClassNamedView classNamedView, @Nullable ImportCollector importCollector) {
+    private void setup(SourceFile source, SourcesMetadata sourcesMetadata, ClassResolver classResolver, ClassNamedView classNamedView, @Nullable ImportCollector importCollector, Supplier<SourceOutline> sourceOutline) {
         this.getRewriters().forEach(rewriter -> {
             rewriter.source = source;
             rewriter.sourcesMetadata = sourcesMetadata;
             rewriter.classResolver = classResolver;
             rewriter.classNamedView = classNamedView;
-            rewriter.importCollector = importCollector;
+            if (rewriter.options.parallelInsert() && importCollector instanceof ImportNameCollector collector) {
+                rewriter.importCollector = new ParallelImportCollector(collector, rewriter);
+            } else {
+                rewriter.importCollector = importCollector;
+            }
+            rewriter.sourceOutline = sourceOutline;
+            rewriter.reset();
         });
     }
 
@@ -111,33 +162,162 @@ public abstract class SearchReplaceRewriterBase implements SourceRewriter {
         }
     }
 
-    private ImportNameCollector collectImport(SourceFile source, Lexer lexer) {
+    private ImportNameCollector collectImport(SourceFile source, Tokenizer tokenizer) {
         final ImportNameCollector importCollector = new ImportNameCollector(source.mainClass());
-        ImportParser.collectImports(lexer, importCollector, source);
+        ImportParser.collectImports(tokenizer, importCollector, source);
         return importCollector;
     }
 
-    private void searchAndReplace(SourceFile file, SourcesMetadata metadata, LineNumberReader reader, StringBuilder content) throws IOException {
+    private Map<Integer, StructuralRegion> resolveStructuralTargets(SourceFile file, SourceSplice splice, Supplier<SourceOutline> outline, IndentUnit indentUnit) {
+        Map<Integer, StructuralRegion> regions = new HashMap<>();
+        for (SearchReplaceRewriter rewriter : this.getRewriters()) {
+            Optional<StructuralTarget> target = rewriter.options.structuralTarget();
+            if (target.isEmpty()) {
+                continue;
+            }
+
+            ClassNamed targetClass = rewriter.options.targetClass().orElse(file.mainClass());
+            TypeOutline type = outline.get().findType(targetClass.dottedNestedName()).orElseThrow(
+                () -> new IllegalStateException("Type %s is not declared in %s for rewriter %s".formatted(targetClass.dottedNestedName(), file.path(), rewriter.getName()))
+            );
+            Span span = target.get().resolve(type).orElseThrow(
+                () -> new IllegalStateException("Structural target %s cannot be resolved in %s for rewriter %s".formatted(target.get(), targetClass.canonicalName(), rewriter.getName()))
+            );
+
+            String indent = leadingSpaces(splice, splice.lineOf(type.span().start())) + indentUnit.content();
+            StructuralRegion region = toLineRegion(rewriter, span, splice, indent);
+            for (StructuralRegion otherRegion : regions.values()) {
+                if (region.startLine() < Math.max(otherRegion.endLine(), otherRegion.startLine() + 1) && otherRegion.startLine() < Math.max(region.endLine(), region.startLine() + 1)) {
+                    throw new IllegalStateException("Structural targets of rewriters %s and %s overlap in %s".formatted(region.owner().getName(), otherRegion.owner().getName(), file.path()));
+                }
+            }
+            regions.put(region.startLine(), region);
+        }
+        return regions;
+    }
+
+    private static String leadingSpaces(SourceSplice splice, int line) {
+        char[] input = splice.original();
+        int start = splice.lineStart(line);
+        int end = start;
+        while (end < input.length && (input[end] == ' ' || input[end] == '\t')) {
+            end++;
+        }
+        return new String(input, start, end - start);
+    }
+
+    // the lines overlapping the span content, blank lines in the middle included
+    private static StructuralRegion toLineRegion(SearchReplaceRewriter rewriter, Span span, SourceSplice splice, String indent) {
+        char[] input = splice.original();
+        int firstLine = splice.lineOf(span.start());
+        int lastLine = splice.lineOf(Math.max(span.start(), span.end() - 1));
+        int startLine = -1;
+        int endLine = -1;
+        for (int line = firstLine; line <= lastLine; line++) {
+            int lineStart = splice.lineStart(line);
+            int lineEnd = splice.lineEnd(line);
+            int contentStart = lineStart;
+            while (contentStart < lineEnd && Character.isWhitespace(input[contentStart])) {
+                contentStart++;
+            }
+            int contentEnd = lineEnd;
+            while (contentEnd > contentStart && Character.isWhitespace(input[contentEnd - 1])) {
+                contentEnd--;
+            }
+
+            boolean overlap = contentStart < contentEnd ?
+                contentStart < span.end() && contentEnd > span.start() :
+                lineStart >= span.start() && lineEnd <= span.end();
+            if (overlap) {
+                if (startLine == -1) {
+                    startLine = line;
+                    if (contentStart < span.start()) {
+                        throw new IllegalStateException("Structural target of rewriter %s doesn't start at the beginning of line %d".formatted(rewriter.getName(), line + 1));
+                    }
+                }
+                endLine = line + 1;
+            }
+        }
+
+        if (startLine == -1) { // empty span, insert after the line
+            int line = splice.lineOf(span.start());
+            for (int i = span.start(), end = splice.lineEnd(line); i < end; i++) {
+                if (!Character.isWhitespace(input[i])) {
+                    throw new IllegalStateException("Structural target of rewriter %s is not followed by a new line at line %d".formatted(rewriter.getName(), line + 1));
+                }
+            }
+            return new StructuralRegion(rewriter, line + 1, line + 1, indent);
+        }
+
+        // only a separator or a comment can follow the replaced content
+        int lastLineEnd = splice.lineEnd(endLine - 1);
+        for (int i = Math.max(span.end(), splice.lineStart(endLine - 1)); i < lastLineEnd; i++) {
+            char c = input[i];
+            if (c == '/' && i + 1 < lastLineEnd && input[i + 1] == '/') {
+                break;
+            }
+            if (c != ';' && c != ',' && !Character.isWhitespace(c)) {
+                throw new IllegalStateException("Structural target of rewriter %s doesn't end at the end of line %d".formatted(rewriter.getName(), endLine));
+            }
+        }
+        return new StructuralRegion(rewriter, startLine, endLine, indent);
+    }
+
+    private void searchAndReplace(SourceFile file, IndentUnit indentUnit, SourceSplice splice, Map<Integer, StructuralRegion> regions, @Nullable OutputCache cache, Optional<Executor> executor) throws IOException {
         Set<SearchReplaceRewriter> rewriters = this.getRewriters();
         Preconditions.checkState(!rewriters.isEmpty());
 
         Set<SearchReplaceRewriter> remainingRewriters = new HashSet<>(rewriters);
         Set<SearchReplaceRewriter> unusedRewriters = new HashSet<>(rewriters);
-        @Nullable StringBuilder strippedContent = null;
-
-        IndentUnit indentUnit = file.metadata().flatMap(FileMetadata::indentUnit).orElse(metadata.indentUnit());
+        for (StructuralRegion region : regions.values()) {
+            remainingRewriters.remove(region.owner()); // no marker to search
+        }
+        char[] input = splice.original();
         @Nullable String indent = null;
         @Nullable SearchReplaceRewriter foundRewriter = null;
+        @Nullable StructuralRegion foundRegion = null;
+        Map<SearchReplaceRewriter, List<Runnable>> tasks = new LinkedHashMap<>(); // parallel inserts of each rewriter in edit order
+        int replacedStart = -1; // offset of the first replaced line, the replaced content is only a view of the input
+        @Nullable CommentMarker startMarker = null;
+        int startMarkerLine = -1;
+
+        for (int lineIndex = 0; lineIndex < splice.lineCount(); lineIndex++) {
+            int lineStart = splice.lineStart(lineIndex);
+            int lineEnd = splice.lineEnd(lineIndex);
+            int nextLineStart = splice.lineStart(lineIndex + 1);
+
+            if (foundRewriter == null && foundRegion == null) {
+                foundRegion = regions.get(lineIndex);
+                if (foundRegion != null) {
+                    if (foundRegion.isEmpty()) {
+                        insert(foundRegion.owner(), new SearchMetadata(foundRegion.indent(), ReplacedContent.EMPTY, lineIndex), splice, lineStart, lineStart, tasks, cache, null);
+                        unusedRewriters.remove(foundRegion.owner());
+                        foundRegion = null;
+                    } else {
+                        replacedStart = lineStart;
+                    }
+                }
+            }
 
-        while (true) {
-            String line = reader.readLine();
-            if (line == null) {
-                break;
+            if (foundRegion != null) {
+                SearchReplaceRewriter owner = foundRegion.owner();
+                if (owner.options.exactReplacement()) {
+                    owner.replaceLine(new SearchMetadata(foundRegion.indent(), new ReplacedContent(input, lineStart, lineEnd), lineIndex), splice.replace(lineStart, nextLineStart).builder());
+                }
+
+                if (lineIndex == foundRegion.endLine() - 1) {
+                    if (!owner.options.exactReplacement()) {
+                        insert(owner, new SearchMetadata(foundRegion.indent(), new ReplacedContent(input, replacedStart, nextLineStart), lineIndex), splice, replacedStart, nextLineStart, tasks, cache, null);
+                    }
+                    unusedRewriters.remove(owner);
+                    foundRegion = null;
+                }
+                continue;
             }
 
             CommentMarker marker = EMPTY_MARKER;
-            if (!line.isEmpty()) {
-                StringReader lineIterator = new StringReader(line);
+            if (isCommentLine(input, lineStart, lineEnd)) {
+                StringReader lineIterator = new StringReader(new String(input, lineStart, lineEnd - lineStart));
                 if (foundRewriter == null) {
                     marker = searchStartMarker(
                         lineIterator,
@@ -156,14 +336,21 @@ public abstract class SearchReplaceRewriterBase implements SourceRewriter {
             if (marker != EMPTY_MARKER) {
                 if (foundRewriter != null) {
                     if (!foundRewriter.options.exactReplacement()) {
-                        // append generated comment
-                        if (foundRewriter.options.generatedComment().isPresent()) {
-                            content.append(indent).append("// ").append(foundRewriter.options.generatedComment().get());
-                            content.append('\n');
+                        SearchMetadata metadata = new SearchMetadata(indent, new ReplacedContent(input, replacedStart, lineStart), lineIndex);
+                        if (foundRewriter.options.checksum()) {
+                            @Nullable String inputHash = RegionChecksum.inputHash(foundRewriter, indent);
+                            if (inputHash == null || startMarker.checksum() == null || !startMarker.checksum().equals(RegionChecksum.of(inputHash, metadata.replacedContent().toString()))) {
+                                // the start marker is rewritten with the new checksum once the content is generated
+                                SourceSplice.Replacement markerLine = splice.replaceSeparately(splice.lineStart(startMarkerLine), splice.lineEnd(startMarkerLine));
+                                String markerIndent = indent;
+                                SearchReplaceRewriter owner = foundRewriter;
+                                insert(foundRewriter, metadata, splice, replacedStart, lineStart, tasks, cache, content -> {
+                                    RegionChecksum.appendMarker(markerLine, markerIndent, owner.options.startCommentMarker(), RegionChecksum.of(inputHash, content));
+                                });
+                            }
+                        } else {
+                            insert(foundRewriter, metadata, splice, replacedStart, lineStart, tasks, cache, null);
                         }
-
-                        foundRewriter.insert(new SearchMetadata(indent, strippedContent.toString(), reader.getLineNumber() - 1), content);
-                        strippedContent = null;
                     }
                     if (!foundRewriter.options.multipleOperation()) {
                         remainingRewriters.remove(foundRewriter);
@@ -172,33 +359,32 @@ public abstract class SearchReplaceRewriterBase implements SourceRewriter {
                     foundRewriter = null;
                 } else {
                     if (marker.indentSize() % indentUnit.size() != 0) {
-                        throw new IllegalStateException("Generated start comment is not properly indented at line %d for rewriter %s in %s".formatted(reader.getLineNumber(), marker.owner().getName(), file.mainClass().canonicalName()));
+                        throw new IllegalStateException("Generated start comment is not properly indented at line %d for rewriter %s in %s".formatted(lineIndex + 1, marker.owner().getName(), file.mainClass().canonicalName()));
                     }
-                    indent = String.valueOf(indentUnit.character()).repeat(marker.indentSize()); // update indent based on the comments for flexibility
+                    indent = indentUnit.whitespace(marker.indentSize()); // update indent based on the comments for flexibility
 
                     foundRewriter = marker.owner();
-                    if (!foundRewriter.options.exactReplacement()) {
-                        strippedContent = new StringBuilder();
-                    }
+                    replacedStart = nextLineStart;
+                    startMarker = marker;
+                    startMarkerLine = lineIndex;
                 }
+                continue;
             }
 
-            @Nullable StringBuilder usedBuilder = null;
-            if (marker == EMPTY_MARKER && foundRewriter != null) {
-                if (foundRewriter.options.exactReplacement()) {
-                    // there's no generated comment here since when the size is equals the replaced content doesn't depend on the game content
-                    // if it does that means the replaced content might not be equals during MC update because of adding/removed content
-                    foundRewriter.replaceLine(new SearchMetadata(indent, line, reader.getLineNumber() - 1), content);
-                } else {
-                    usedBuilder = strippedContent;
-                }
-            } else {
-                usedBuilder = content;
+            if (foundRewriter != null && foundRewriter.options.exactReplacement()) {
+                // there's no generated comment here since when the size is equals the replaced content doesn't depend on the game content
+                // if it does that means the replaced content might not be equals during MC update because of adding/removed content
+                foundRewriter.replaceLine(new SearchMetadata(indent, new ReplacedContent(input, lineStart, lineEnd), lineIndex), splice.replace(lineStart, nextLineStart).builder());
             }
-            if (usedBuilder != null) {
-                usedBuilder.append(line);
-                usedBuilder.append('\n');
+        }
+
+        StructuralRegion region = regions.get(splice.lineCount()); // insertion at the end of the file
+        if (region != null && foundRewriter == null) {
+            if (!splice.endsWithTerminator()) {
+                splice.replace(input.length, input.length).append('\n');
             }
+            insert(region.owner(), new SearchMetadata(region.indent(), ReplacedContent.EMPTY, region.startLine()), splice, input.length, input.length, tasks, cache, null);
+            unusedRewriters.remove(region.owner());
         }
 
         if (foundRewriter != null) {
@@ -208,12 +394,104 @@ public abstract class SearchReplaceRewriterBase implements SourceRewriter {
         if (!unusedRewriters.isEmpty()) {
             throw new IllegalStateException("SRT didn't found some expected generated comment for the following rewriters: " + unusedRewriters.stream().map(SearchReplaceRewriter::getName).toList());
         }
+
+        runParallelInserts(tasks, executor);
+    }
+
+    // the parallel inserts only start once the scan is done, the imports can't change anymore at this point
+    private static void runParallelInserts(Map<SearchReplaceRewriter, List<Runnable>> tasks, Optional<Executor> executor) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+
+        if (executor.isEmpty()) {
+            tasks.values().forEach(inserts -> inserts.forEach(Runnable::run));
+            return;
+        }
+
+        // the inserts of the same rewriter run one after the other since they share its state
+        List<CompletableFuture<Void>> futures = new ArrayList<>(tasks.size());
+        boolean completed = false;
+        try {
+            for (List<Runnable> inserts : tasks.values()) {
+                futures.add(CompletableFuture.runAsync(() -> inserts.forEach(Runnable::run), executor.get()));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+            completed = true;
+        } catch (CompletionException ex) {
+            Throwables.throwIfUnchecked(ex.getCause());
+            throw ex;
+        } finally {
+            if (!completed) {
+                futures.forEach(future -> future.cancel(true));
+            }
+        }
+    }
+
+    private static void insert(SearchReplaceRewriter rewriter, SearchMetadata metadata, SourceSplice splice, int start, int end, Map<SearchReplaceRewriter, List<Runnable>> tasks, @Nullable OutputCache cache, @Nullable Consumer<CharSequence> callback) throws IOException {
+        SourceSplice.Replacement replacement = rewriter.options.parallelInsert() ? splice.replaceSeparately(start, end) : splice.replace(start, end);
+        // append generated comment
+        if (rewriter.options.generatedComment().isPresent()) {
+            replacement.append(metadata.indent()).append("// ").append(rewriter.options.generatedComment().get());
+            replacement.append('\n');
+        }
+
+        if (rewriter.options.parallelInsert()) {
+            tasks.computeIfAbsent(rewriter, key -> new ArrayList<>()).add(() -> {
+                rewriter.insert(metadata, replacement);
+                if (callback != null) {
+                    callback.accept(replacement);
+                }
+            });
+            return;
+        }
+
+        if (cache != null) {
+            cache.insert(rewriter, metadata, replacement);
+        } else {
+            rewriter.insert(metadata, replacement);
+        }
+        if (callback != null) {
+            callback.accept(replacement);
+        }
     }
 
-    private void rewriteImports(ImportNameCollector collector, ImportLayout layout, StringBuilder into) {
-        Lexer lex = new Lexer(into.toString().toCharArray());
-        TokenCapture position = ImportParser.trackImportPosition(lex); // need to retrack this just in case other rewriters moved things around
-        into.replace(position.start().cursor(), position.end().cursor(), collector.writeImports(layout));
+    // cheap check before looking for the markers
+    private static boolean isCommentLine(char[] input, int lineStart, int lineEnd) {
+        int cursor = lineStart;
+        while (cursor < lineEnd && (input[cursor] == ' ' || input[cursor] == '\t')) {
+            cursor++;
+        }
+        return cursor + 1 < lineEnd && input[cursor] == '/' && input[cursor + 1] == '/';
+    }
+
+    private record StructuralRegion(SearchReplaceRewriter owner, int startLine, int endLine, String indent) {
+
+        boolean isEmpty() {
+            return this.startLine == this.endLine;
+        }
+    }
+
+    private SafeFiles.ContentWriter rewriteImports(ImportNameCollector collector, ImportLayout layout, SourceSplice splice, TokenCache headerTokens) throws IOException {
+        TokenCapture position = ImportParser.trackImportPosition(headerTokens.replay());
+        int start = position.start().cursor();
+        int end = position.end().cursor();
+        if (splice.isUntouched(start, end)) {
+            splice.replace(start, end).append(collector.writeImports(layout));
+            return splice::writeTo;
+        }
+
+        StringWriter output = new StringWriter();
+        splice.writeTo(output);
+        StringBuffer into = output.getBuffer();
+        Lexer lex = Lexer.acquire(into.toString().toCharArray());
+        try {
+            position = ImportParser.trackImportPosition(lex); // need to retrack this since other rewriters moved things around
+        } finally {
+            lex.release();
+        }
+        into.replace(position.start().cursor(), position.end().cursor(), splice.translate(collector.writeImports(layout)));
+        return writer -> writer.append(into);
     }
 
     @VisibleForTesting
@@ -232,11 +510,21 @@ public abstract class SearchReplaceRewriterBase implements SourceRewriter {
             }
         }
 
-        if (lineIterator.canRead() || result == null) {
+        if (result == null) {
             return EMPTY_MARKER;
         }
 
-        return new CommentMarker(result, indentSize);
+        @Nullable String checksum = null;
+        if (lineIterator.canRead()) {
+            if (result.options.checksum()) {
+                checksum = RegionChecksum.parse(lineIterator.getRemaining());
+            }
+            if (checksum == null) {
+                return EMPTY_MARKER;
+            }
+        }
+
+        return new CommentMarker(result, indentSize, checksum);
     }
 
     private CommentMarker searchEndMarker(StringReader lineIterator, String indent, SearchReplaceRewriter currentRewriter) {
@@ -250,7 +538,7 @@ public abstract class SearchReplaceRewriterBase implements SourceRewriter {
             return EMPTY_MARKER;
         }
 
-        return new CommentMarker(currentRewriter, indent.length());
+        return new CommentMarker(currentRewriter, indent.length(), null);
     }
 
     public abstract Set<SearchReplaceRewriter> getRewriters();
@@ -0,0 +1,281 @@
+package io.papermc.typewriter.replace;
+
+import com.google.common.base.Preconditions;
+import io.papermc.typewriter.util.CodeSink;
+import io.papermc.typewriter.util.SegmentedBuffer;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Collects the edits made on the original content of a file and splices
+ * them when the file is written: the unchanged spans are copied in bulk
+ * and keep their line terminators while the generated content written
+ * with {@code '\n'} is translated to the line separator of the file.
+ * The replacements are written into a {@link SegmentedBuffer}, directly by
+ * the code sinks or through a reused builder for the rewriters only
+ * supporting a {@link StringBuilder}.
+ * <br>
+ * Lines are counted the same way as {@link java.io.LineNumberReader}.
+ */
+@DefaultQualifier(NonNull.class)
+final class SourceSplice {
+
+    private final char[] original;
+    private final int[] lineStarts;
+    private final int lineCount;
+    private final String lineSeparator;
+
+    private final SegmentedBuffer replacements = new SegmentedBuffer();
+    private final StringBuilder pendingReplacement = new StringBuilder();
+    private int[] edits = new int[3 * 8]; // start, end and replacement start of each edit
+    private int editCount;
+    private final Map<Integer, Replacement> separateReplacements = new HashMap<>(); // edit index -> replacement filled later
+
+    SourceSplice(char[] original) {
+        this.original = original;
+
+        int[] lineStarts = new int[16];
+        int count = 1;
+        String lineSeparator = "\n";
+        for (int i = 0; i < original.length; i++) {
+            char c = original[i];
+            if (c == '\r' || c == '\n') {
+                int start = i;
+                if (c == '\r' && i + 1 < original.length && original[i + 1] == '\n') {
+                    i++;
+                }
+                if (count == 1) {
+                    lineSeparator = new String(original, start, i + 1 - start);
+                }
+                if (count == lineStarts.length) {
+                    lineStarts = Arrays.copyOf(lineStarts, count << 1);
+                }
+                lineStarts[count++] = i + 1;
+            }
+        }
+        this.lineStarts = Arrays.copyOf(lineStarts, count);
+        this.lineCount = this.lineStarts[count - 1] == original.length ? count - 1 : count; // no line after a trailing terminator
+        this.lineSeparator = lineSeparator;
+    }
+
+    public char[] original() {
+        return this.original;
+    }
+
+    public String lineSeparator() {
+        return this.lineSeparator;
+    }
+
+    public int lineCount() {
+        return this.lineCount;
+    }
+
+    public int lineStart(int line) {
+        return line < this.lineStarts.length ? this.lineStarts[line] : this.original.length;
+    }
+
+    // excluding the line terminator
+    public int lineEnd(int line) {
+        int start = this.lineStart(line);
+        int end = this.lineStart(line + 1);
+        while (end > start && (this.original[end - 1] == '\n' || this.original[end - 1] == '\r')) {
+            end--;
+        }
+        return end;
+    }
+
+    public int lineOf(int offset) {
+        int index = Arrays.binarySearch(this.lineStarts, offset);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    public boolean endsWithTerminator() {
+        return this.original.length == 0 || this.lineCount != this.lineStarts.length;
+    }
+
+    /**
+     * Replaces a span of the original content, the replacement must be
+     * appended to the returned sink before any other edit is made.
+     *
+     * @param start the start offset in the original content
+     * @param end the end offset in the original content (exclusive)
+     * @return the sink of the replacement
+     */
+    public Replacement replace(int start, int end) {
+        this.recordEdit(start, end);
+        return new Replacement(this.replacements, this.pendingReplacement);
+    }
+
+    private void recordEdit(int start, int end) {
+        Preconditions.checkArgument(start >= 0 && start <= end && end <= this.original.length, "Invalid span [%s, %s[", start, end);
+        flush(this.replacements, this.pendingReplacement);
+        if (this.editCount * 3 == this.edits.length) {
+            this.edits = Arrays.copyOf(this.edits, this.edits.length << 1);
+        }
+        int index = this.editCount++ * 3;
+        this.edits[index] = start;
+        this.edits[index + 1] = end;
+        this.edits[index + 2] = this.replacements.length();
+    }
+
+    private static void flush(SegmentedBuffer buffer, StringBuilder pending) {
+        if (!pending.isEmpty()) {
+            buffer.append(pending);
+            pending.setLength(0);
+        }
+    }
+
+    /**
+     * Replaces a span of the original content with a replacement that can be
+     * filled later, from another thread, as long as it's done before the
+     * splice is written.
+     *
+     * @param start the start offset in the original content
+     * @param end the end offset in the original content (exclusive)
+     * @return the sink of the replacement
+     */
+    public Replacement replaceSeparately(int start, int end) {
+        this.recordEdit(start, end);
+        Replacement replacement = new Replacement(new SegmentedBuffer(), new StringBuilder());
+        this.separateReplacements.put(this.editCount - 1, replacement);
+        return replacement;
+    }
+
+    public boolean isEmpty() {
+        return this.editCount == 0;
+    }
+
+    public boolean isUntouched(int start, int end) {
+        for (int i = 0; i < this.editCount; i++) {
+            int editStart = this.edits[i * 3];
+            int editEnd = this.edits[i * 3 + 1];
+            if (editStart < end && start < editEnd || editStart == editEnd && editStart > start && editStart < end) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void writeTo(Writer output) throws IOException {
+        Integer[] order = new Integer[this.editCount];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (edit, otherEdit) -> Integer.compare(this.edits[edit * 3], this.edits[otherEdit * 3])); // stable: insertions at the same offset keep their order
+
+        flush(this.replacements, this.pendingReplacement);
+        int cursor = 0;
+        for (int edit : order) {
+            int start = this.edits[edit * 3];
+            int end = this.edits[edit * 3 + 1];
+            Preconditions.checkState(start >= cursor, "Overlapping edits at offset %s", start);
+            output.write(this.original, cursor, start - cursor);
+
+            Replacement separateReplacement = this.separateReplacements.get(edit);
+            if (separateReplacement != null) {
+                separateReplacement.flush();
+                separateReplacement.buffer.writeTo(separateReplacement.start, separateReplacement.buffer.length(), (chunk, offset, length) -> this.writeTranslated(output, chunk, offset, offset + length));
+            } else {
+                int replacementStart = this.edits[edit * 3 + 2];
+                int replacementEnd = edit + 1 < this.editCount ? this.edits[(edit + 1) * 3 + 2] : this.replacements.length();
+                this.replacements.writeTo(replacementStart, replacementEnd, (chunk, offset, length) -> this.writeTranslated(output, chunk, offset, offset + length));
+            }
+            cursor = end;
+        }
+        output.write(this.original, cursor, this.original.length - cursor);
+    }
+
+    private void writeTranslated(Writer output, char[] content, int start, int end) throws IOException {
+        if (this.lineSeparator.equals("\n")) {
+            output.write(content, start, end - start);
+            return;
+        }
+
+        int from = start;
+        for (int i = start; i < end; i++) {
+            if (content[i] == '\n') {
+                output.write(content, from, i - from);
+                output.write(this.lineSeparator);
+                from = i + 1;
+            }
+        }
+        output.write(content, from, end - from);
+    }
+
+    public String translate(String content) {
+        return this.lineSeparator.equals("\n") ? content : content.replace("\n", this.lineSeparator);
+    }
+
+    /**
+     * The content of an edit, appended directly into the segmented buffer
+     * of the splice or through {@link #builder()}.
+     */
+    static final class Replacement implements CodeSink, CharSequence {
+
+        private final SegmentedBuffer buffer;
+        private final StringBuilder pending; // empty when the replacement is created
+        private final int start;
+
+        private Replacement(SegmentedBuffer buffer, StringBuilder pending) {
+            this.buffer = buffer;
+            this.pending = pending;
+            this.start = buffer.length();
+        }
+
+        /**
+         * Gets a builder for the callers not supporting a code sink, the content
+         * appended there is moved into the buffer on the next append or edit.
+         *
+         * @return the builder
+         */
+        public StringBuilder builder() {
+            return this.pending;
+        }
+
+        private void flush() {
+            SourceSplice.flush(this.buffer, this.pending);
+        }
+
+        @Override
+        public Replacement append(CharSequence content) {
+            this.flush();
+            this.buffer.append(content);
+            return this;
+        }
+
+        @Override
+        public Replacement append(char c) {
+            this.flush();
+            this.buffer.append(c);
+            return this;
+        }
+
+        @Override
+        public int length() {
+            return this.buffer.length() - this.start + this.pending.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            int flushed = this.buffer.length() - this.start;
+            return index < flushed ? this.buffer.charAt(this.start + index) : this.pending.charAt(index - flushed);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            this.flush();
+            return this.buffer.subSequence(this.start + start, this.start + end);
+        }
+
+        @Override
+        public String toString() {
+            return this.subSequence(0, this.length()).toString();
+        }
+    }
+}
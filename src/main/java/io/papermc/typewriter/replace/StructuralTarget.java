@@ -0,0 +1,95 @@
+package io.papermc.typewriter.replace;
+
+import io.papermc.typewriter.parser.outline.MemberOutline;
+import io.papermc.typewriter.parser.outline.Span;
+import io.papermc.typewriter.parser.outline.TypeOutline;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+import org.jetbrains.annotations.Contract;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A replacement target addressed by the structure of the targeted class
+ * instead of comment markers. The targeted class is the one given in the
+ * {@link ReplaceOptions#targetClass() options} or the main class of the file.
+ * <br>
+ * The replaced content always covers whole lines: the lines overlapping the
+ * resolved span are removed and the generated content is inserted in place.
+ */
+@DefaultQualifier(NonNull.class)
+public sealed interface StructuralTarget {
+
+    /**
+     * Targets the enum constants of an enum, up to the semicolon if any.
+     *
+     * @return the target
+     */
+    @Contract(value = "-> new", pure = true)
+    static StructuralTarget enumConstants() {
+        return new EnumConstants();
+    }
+
+    /**
+     * Targets the members annotated with an annotation. The members
+     * are expected to be grouped together since everything between the
+     * first and the last annotated member is replaced.
+     *
+     * @param annotationName the simple or qualified name of the annotation
+     * @return the target
+     */
+    @Contract(value = "_ -> new", pure = true)
+    static StructuralTarget annotatedMembers(String annotationName) {
+        return new AnnotatedMembers(annotationName);
+    }
+
+    /**
+     * Targets the whole body of a type, excluding the lines of the braces.
+     *
+     * @return the target
+     */
+    @Contract(value = "-> new", pure = true)
+    static StructuralTarget typeBody() {
+        return new TypeBody();
+    }
+
+    /**
+     * Resolves the span of this target in the targeted type.
+     *
+     * @param type the outline of the targeted type
+     * @return the span or empty if the target is not found
+     */
+    Optional<Span> resolve(TypeOutline type);
+
+    record EnumConstants() implements StructuralTarget {
+
+        @Override
+        public Optional<Span> resolve(TypeOutline type) {
+            return Optional.ofNullable(type.enumConstants());
+        }
+    }
+
+    record AnnotatedMembers(String annotationName) implements StructuralTarget {
+
+        @Override
+        public Optional<Span> resolve(TypeOutline type) {
+            List<MemberOutline> members = type.members().stream().filter(member -> member.isAnnotatedWith(this.annotationName)).toList();
+            if (members.isEmpty()) {
+                return Optional.empty();
+            }
+
+            MemberOutline first = members.getFirst();
+            Span firstSpan = first.javadoc() != null ? first.javadoc() : first.span();
+            return Optional.of(new Span(firstSpan.start(), members.getLast().span().end()));
+        }
+    }
+
+    record TypeBody() implements StructuralTarget {
+
+        @Override
+        public Optional<Span> resolve(TypeOutline type) {
+            return Optional.of(type.body());
+        }
+    }
+}
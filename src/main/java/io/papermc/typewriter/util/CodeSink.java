@@ -0,0 +1,43 @@
+package io.papermc.typewriter.util;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+import org.jetbrains.annotations.Contract;
+
+/**
+ * The output of the code emitters.
+ *
+ * @see SegmentedBuffer
+ */
+@DefaultQualifier(NonNull.class)
+public interface CodeSink {
+
+    @Contract(value = "_ -> this", mutates = "this")
+    CodeSink append(CharSequence content);
+
+    @Contract(value = "_ -> this", mutates = "this")
+    CodeSink append(char c);
+
+    /**
+     * Wraps a builder into a code sink.
+     *
+     * @param builder the builder
+     * @return the code sink appending into the builder
+     */
+    @Contract(value = "_ -> new", pure = true)
+    static CodeSink of(StringBuilder builder) {
+        return new CodeSink() {
+            @Override
+            public CodeSink append(CharSequence content) {
+                builder.append(content);
+                return this;
+            }
+
+            @Override
+            public CodeSink append(char c) {
+                builder.append(c);
+                return this;
+            }
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package io.papermc.typewriter.util;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Writes files through a temporary file created next to the destination
+ * and moved in place once fully written, so a destination is never left
+ * half-written and the content is streamed without being held in memory.
+ */
+@DefaultQualifier(NonNull.class)
+public final class SafeFiles {
+
+    @FunctionalInterface
+    public interface ContentWriter {
+
+        void writeTo(Writer writer) throws IOException;
+    }
+
+    /**
+     * Writes a content in a temporary file of the destination directory.
+     * The returned file is not deleted if the write succeed.
+     *
+     * @param destination the final destination of the content
+     * @param content the content writer, encoded in UTF-8
+     * @return the temporary file
+     * @throws IOException if an I/O error occur
+     */
+    public static Path stage(Path destination, ContentWriter content) throws IOException {
+        Path parent = destination.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path stagedFile = Files.createTempFile(parent, destination.getFileName().toString(), ".tmp");
+        boolean success = false;
+        try {
+            try (Writer writer = Files.newBufferedWriter(stagedFile, StandardCharsets.UTF_8)) {
+                content.writeTo(writer);
+            }
+            success = true;
+        } finally {
+            if (!success) {
+                Files.deleteIfExists(stagedFile);
+            }
+        }
+        return stagedFile;
+    }
+
+    /**
+     * Moves a staged file to its destination, atomically if the file system
+     * supports it.
+     *
+     * @param stagedFile the staged file
+     * @param destination the destination
+     * @throws IOException if an I/O error occur
+     */
+    public static void commit(Path stagedFile, Path destination) throws IOException {
+        try {
+            Files.move(stagedFile, destination, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(stagedFile, destination, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    public static void write(Path destination, ContentWriter content) throws IOException {
+        Path stagedFile = stage(destination, content);
+        try {
+            commit(stagedFile, destination);
+        } finally {
+            Files.deleteIfExists(stagedFile);
+        }
+    }
+
+    private SafeFiles() {
+    }
+}
@@ -0,0 +1,136 @@
+package io.papermc.typewriter.util;
+
+import com.google.common.base.Preconditions;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.framework.qual.DefaultQualifier;
+import org.jetbrains.annotations.Contract;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A character buffer made of fixed-size segments: unlike a {@link StringBuilder}
+ * the content is never copied when the buffer grows and can be streamed
+ * segment by segment.
+ */
+@DefaultQualifier(NonNull.class)
+public final class SegmentedBuffer implements CodeSink, CharSequence {
+
+    private static final int SEGMENT_SHIFT = 13;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    @FunctionalInterface
+    public interface ChunkWriter {
+
+        void write(char[] chunk, int offset, int length) throws IOException;
+    }
+
+    private final List<char[]> segments = new ArrayList<>();
+    private int length;
+
+    // the segment where the next char is written
+    private char[] tail() {
+        int index = this.length >>> SEGMENT_SHIFT;
+        if (index == this.segments.size()) {
+            this.segments.add(new char[SEGMENT_SIZE]);
+        }
+        return this.segments.get(index);
+    }
+
+    @Override
+    public SegmentedBuffer append(char c) {
+        this.tail()[this.length & SEGMENT_MASK] = c;
+        this.length++;
+        return this;
+    }
+
+    @Override
+    public SegmentedBuffer append(CharSequence content) {
+        return this.append(content, 0, content.length());
+    }
+
+    @Contract(value = "_, _, _ -> this", mutates = "this")
+    public SegmentedBuffer append(CharSequence content, int start, int end) {
+        Preconditions.checkPositionIndexes(start, end, content.length());
+        int from = start;
+        while (from < end) {
+            char[] segment = this.tail();
+            int offset = this.length & SEGMENT_MASK;
+            int count = Math.min(end - from, SEGMENT_SIZE - offset);
+            if (content instanceof String string) {
+                string.getChars(from, from + count, segment, offset);
+            } else if (content instanceof StringBuilder builder) {
+                builder.getChars(from, from + count, segment, offset);
+            } else {
+                for (int i = 0; i < count; i++) {
+                    segment[offset + i] = content.charAt(from + i);
+                }
+            }
+            from += count;
+            this.length += count;
+        }
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return this.length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        Preconditions.checkElementIndex(index, this.length);
+        return this.segments.get(index >>> SEGMENT_SHIFT)[index & SEGMENT_MASK];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        Preconditions.checkPositionIndexes(start, end, this.length);
+        char[] content = new char[end - start];
+        this.getChars(start, end, content);
+        return new String(content);
+    }
+
+    /**
+     * Writes a part of the content, one chunk per segment.
+     *
+     * @param start the start index
+     * @param end the end index (exclusive)
+     * @param writer the chunk writer
+     * @throws IOException if the writer fails
+     */
+    public void writeTo(int start, int end, ChunkWriter writer) throws IOException {
+        Preconditions.checkPositionIndexes(start, end, this.length);
+        int from = start;
+        while (from < end) {
+            int offset = from & SEGMENT_MASK;
+            int count = Math.min(end - from, SEGMENT_SIZE - offset);
+            writer.write(this.segments.get(from >>> SEGMENT_SHIFT), offset, count);
+            from += count;
+        }
+    }
+
+    public void writeTo(Writer writer) throws IOException {
+        this.writeTo(0, this.length, writer::write);
+    }
+
+    @Override
+    public String toString() {
+        char[] content = new char[this.length];
+        this.getChars(0, this.length, content);
+        return new String(content);
+    }
+
+    private void getChars(int start, int end, char[] destination) {
+        int from = start;
+        while (from < end) {
+            int offset = from & SEGMENT_MASK;
+            int count = Math.min(end - from, SEGMENT_SIZE - offset);
+            System.arraycopy(this.segments.get(from >>> SEGMENT_SHIFT), offset, destination, from - start, count);
+            from += count;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package io.papermc.typewriter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ClassNamedTest {
+
+    @Test
+    public void testInterned() {
+        ClassNamed nested = ClassNamed.of("a.b", "Outer$Inner");
+        assertSame(nested, ClassNamed.of("a.b", "Outer", "Inner"));
+        assertSame(nested, ClassNamed.of("a.b", "Outer").nested("Inner"));
+        assertSame(nested.enclosing(), nested.topLevel());
+        assertSame(ClassNamed.of("a.b", "Outer"), nested.topLevel());
+    }
+
+    @Test
+    public void testConsistentWithConstructor() {
+        ClassNamed nested = ClassNamed.of("a.b", "Outer", "Inner");
+        ClassNamed constructed = new ClassNamed("a.b", "Inner", "Outer.Inner", null);
+        assertEquals(constructed, nested);
+        assertEquals(constructed.hashCode(), nested.hashCode());
+        assertEquals(new ClassNamed("a.b", "Outer", "Outer", null), nested.enclosing());
+        assertEquals(1, Map.of(constructed, 1).get(nested));
+
+        assertEquals(ClassNamed.of(Map.Entry.class), ClassNamed.of("java.util", "Map$Entry"));
+        assertEquals(ClassNamed.of(Map.Entry.class).hashCode(), ClassNamed.of("java.util", "Map$Entry").hashCode());
+    }
+
+    @Test
+    public void testInvalidName() {
+        assertThrows(IllegalArgumentException.class, () -> ClassNamed.of("a.b", "Outer").nested("1nvalid"));
+    }
+}
@@ -0,0 +1,53 @@
+package io.papermc.typewriter.context;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IndentUnitTest {
+
+    private static final IndentUnit SPACES = IndentUnit.parse("    ");
+    private static final IndentUnit TAB = IndentUnit.parse("\t");
+
+    @Test
+    public void testLevelZero() {
+        assertEquals("", SPACES.indentation(0));
+        assertEquals("", TAB.indentation(0));
+    }
+
+    @Test
+    public void testCached() {
+        assertEquals("    ".repeat(3), SPACES.indentation(3));
+        assertSame(SPACES.indentation(3), SPACES.whitespace(12));
+        assertSame(SPACES.whitespace(4), IndentUnit.parse("  ").indentation(2)); // shared between units of the same character
+    }
+
+    @Test
+    public void testGrowth() {
+        String whitespace = SPACES.whitespace(100); // past the initial table
+        assertEquals(" ".repeat(100), whitespace);
+        assertSame(whitespace, SPACES.whitespace(100));
+        assertEquals(" ".repeat(31), SPACES.whitespace(31));
+    }
+
+    @Test
+    public void testUncached() {
+        assertEquals(" ".repeat(257), SPACES.whitespace(257));
+        assertEquals("    ".repeat(100), SPACES.indentation(100));
+        assertEquals("\t".repeat(300), TAB.indentation(300));
+    }
+
+    @Test
+    public void testTab() {
+        assertEquals("\t\t", TAB.indentation(2));
+        assertEquals("\t".repeat(40), TAB.whitespace(40));
+    }
+
+    @Test
+    public void testNegativeWidth() {
+        assertThrows(IllegalArgumentException.class, () -> SPACES.whitespace(-1));
+        assertThrows(IllegalArgumentException.class, () -> TAB.indentation(-1));
+    }
+}
@@ -0,0 +1,72 @@
+package io.papermc.typewriter.parser;
+
+import io.papermc.typewriter.parser.token.Token;
+import io.papermc.typewriter.parser.token.TokenType;
+import io.papermc.typewriter.parser.token.pos.TokenCapture;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CachedTokenizerTest extends ParserTest {
+
+    private static final String INPUT = """
+        package a.b;
+
+        import java.util.List;
+        import static java.util.Objects.requireNonNull;
+
+        /** doc */
+        public class Test {
+        }
+        """;
+
+    private static List<Token> readAll(Tokenizer tokenizer) {
+        List<Token> tokens = new ArrayList<>();
+        Token token;
+        while ((token = tokenizer.readToken()).type() != TokenType.EOI) {
+            tokens.add(token);
+        }
+        return tokens;
+    }
+
+    @Test
+    public void testReplay() {
+        TokenCache cache = TokenCache.lex(INPUT.toCharArray());
+        List<Token> expected = readAll(new Lexer(INPUT.toCharArray()));
+
+        Tokenizer first = cache.replay();
+        assertEquals(expected.get(0), first.readToken());
+        assertEquals(1, cache.size());
+
+        assertEquals(expected, readAll(cache.replay()));
+        assertEquals(expected.subList(1, expected.size()), readAll(first));
+        assertEquals(expected, readAll(cache.replay()));
+        assertEquals(expected.size(), cache.size());
+    }
+
+    @Test
+    public void testPartialReplay() {
+        TokenCache cache = TokenCache.lex(INPUT.toCharArray());
+        TokenCapture position = ImportParser.trackImportPosition(cache.replay());
+        int recorded = cache.size();
+        assertTrue(recorded < readAll(new Lexer(INPUT.toCharArray())).size());
+
+        assertEquals(position, ImportParser.trackImportPosition(cache.replay()));
+        assertEquals(recorded, cache.size());
+    }
+
+    @Test
+    public void testValidity() {
+        TokenCache cache = TokenCache.lex(INPUT.toCharArray());
+        assertTrue(cache.isValidFor(cache.content()));
+        assertTrue(cache.isValidFor(INPUT.toCharArray()));
+        assertFalse(cache.isValidFor(INPUT.replace("Test", "Tset").toCharArray()));
+        assertFalse(cache.isValidFor((INPUT + '\n').toCharArray()));
+        assertFalse(TokenCache.lex("Aa".toCharArray()).isValidFor("BB".toCharArray())); // same string hash
+    }
+}
@@ -0,0 +1,32 @@
+package io.papermc.typewriter.parser;
+
+import io.papermc.typewriter.parser.token.TokenType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class CharTableTest {
+
+    @Test
+    public void testIdentifierClasses() {
+        for (int c = 0; c < CharTable.SIZE * 2; c++) {
+            assertEquals(Character.isJavaIdentifierStart(c), CharTable.isIdentifierStart(c), "Identifier start mismatch for U+%04X".formatted(c));
+            assertEquals(Character.isJavaIdentifierPart(c), CharTable.isIdentifierPart(c), "Identifier part mismatch for U+%04X".formatted(c));
+            assertEquals(Character.isIdentifierIgnorable(c), CharTable.isIdentifierIgnorable(c), "Identifier ignorable mismatch for U+%04X".formatted(c));
+        }
+    }
+
+    @Test
+    public void testPunctuations() {
+        for (TokenType type : TokenType.values()) {
+            if (type.value != null) {
+                assertSame(type, CharTable.punctuation(type.value.charAt(0)));
+            }
+        }
+        assertNull(CharTable.punctuation('a'));
+        assertNull(CharTable.punctuation('/'));
+        assertNull(CharTable.punctuation('é'));
+    }
+}
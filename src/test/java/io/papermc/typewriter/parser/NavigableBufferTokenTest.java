@@ -0,0 +1,45 @@
+package io.papermc.typewriter.parser;
+
+import io.papermc.typewriter.parser.iterator.NavigableBufferToken;
+import io.papermc.typewriter.parser.token.CharSequenceToken;
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NavigableBufferTokenTest extends ParserTest {
+
+    private static String value(Object token) {
+        return ((CharSequenceToken) token).value();
+    }
+
+    @Test
+    public void testLookbehind() {
+        NavigableBufferToken iterator = new NavigableBufferToken(new Lexer("a b c d e".toCharArray()), 2);
+        assertFalse(iterator.hasPrevious());
+        assertEquals("a", value(iterator.next()));
+        assertEquals("b", value(iterator.next()));
+        assertEquals("c", value(iterator.next()));
+        assertEquals("d", value(iterator.next()));
+
+        assertEquals("d", value(iterator.previous()));
+        assertEquals("c", value(iterator.previous()));
+        assertTrue(iterator.hasPrevious());
+        assertEquals("b", value(iterator.peekPrevious()));
+        assertEquals("b", value(iterator.previous()));
+        assertFalse(iterator.hasPrevious()); // out of the window
+        assertThrows(NoSuchElementException.class, iterator::previous);
+
+        assertEquals("b", value(iterator.next()));
+        assertEquals("c", value(iterator.next()));
+        assertEquals("d", value(iterator.next()));
+        assertEquals("e", value(iterator.peekNext()));
+        assertEquals("e", value(iterator.next()));
+        assertFalse(iterator.hasNext());
+        assertEquals("e", value(iterator.previous()));
+    }
+}
@@ -0,0 +1,125 @@
+package io.papermc.typewriter.parser;
+
+import io.papermc.typewriter.parser.outline.MemberOutline;
+import io.papermc.typewriter.parser.outline.SourceOutline;
+import io.papermc.typewriter.parser.outline.TypeOutline;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OutlineTest extends ParserTest {
+
+    private static final String CONTENT = """
+        package a.b;
+
+        import java.util.List;
+
+        /**
+         * Outer class.
+         */
+        @Deprecated
+        public class Outer<T extends Comparable<T>> implements Runnable {
+
+            private static final int CONSTANT = 1 + 2, OTHER = (3);
+            private final List<String> names = List.of("{", "}");
+            private Runnable task = () -> { int a = 0; };
+            @org.jetbrains.annotations.Nullable String nullable;
+
+            static {
+                System.out.println(";");
+            }
+
+            public Outer() {
+                /** not a doc */
+            }
+
+            @Override
+            public void run() {
+                new Object() {
+                    void hidden() {}
+                };
+            }
+
+            /// markdown doc
+            public <R> R map(java.util.function.Function<T, R> function) throws Exception {
+                return function.apply(null);
+            }
+
+            enum Color {
+                // start
+                RED,
+                @Deprecated GREEN("g") {
+                },
+                BLUE;
+
+                private final String id = "";
+
+                Color() {
+                }
+
+                Color(String id) {
+                }
+            }
+
+            record Point(int x, int y) {
+                Point {
+                }
+            }
+
+            @interface Marker {
+                String value() default "";
+            }
+
+            interface Empty {
+            }
+        }
+        """;
+
+    @Test
+    public void testOutline() {
+        char[] content = CONTENT.toCharArray();
+        SourceOutline outline = SourceOutline.parse(content);
+
+        assertEquals(1, outline.types().size());
+        TypeOutline outer = outline.types().getFirst();
+        assertEquals(TypeOutline.Kind.CLASS, outer.kind());
+        assertEquals("Outer", outer.name());
+        assertTrue(outer.isAnnotatedWith("java.lang.Deprecated"));
+        assertNotNull(outer.javadoc());
+        assertTrue(outer.javadoc().in(content).contains("Outer class."));
+        assertTrue(outer.span().in(content).startsWith("@Deprecated"));
+        assertTrue(outer.span().in(content).endsWith("}"));
+
+        assertEquals(List.of("CONSTANT", "OTHER", "names", "task", "nullable"), outer.members(MemberOutline.Kind.FIELD).stream().map(MemberOutline::name).toList());
+        assertTrue(outer.members(MemberOutline.Kind.FIELD).getLast().isAnnotatedWith("org.jetbrains.annotations.Nullable"));
+        assertEquals(1, outer.members(MemberOutline.Kind.INITIALIZER).size());
+        assertEquals(List.of("Outer"), outer.members(MemberOutline.Kind.CONSTRUCTOR).stream().map(MemberOutline::name).toList());
+        assertEquals(List.of("run", "map"), outer.members(MemberOutline.Kind.METHOD).stream().map(MemberOutline::name).toList());
+
+        MemberOutline map = outer.members(MemberOutline.Kind.METHOD).getLast();
+        assertNotNull(map.javadoc());
+        assertEquals("/// markdown doc", map.javadoc().in(content));
+        assertNull(outer.members(MemberOutline.Kind.METHOD).getFirst().javadoc());
+
+        assertEquals(List.of("Color", "Point", "Marker", "Empty"), outer.types().stream().map(TypeOutline::name).toList());
+        assertEquals(List.of(TypeOutline.Kind.ENUM, TypeOutline.Kind.RECORD, TypeOutline.Kind.ANNOTATION, TypeOutline.Kind.INTERFACE), outer.types().stream().map(TypeOutline::kind).toList());
+
+        TypeOutline color = outline.findType("Outer.Color").orElseThrow();
+        assertEquals(List.of("RED", "GREEN", "BLUE"), color.members(MemberOutline.Kind.ENUM_CONSTANT).stream().map(MemberOutline::name).toList());
+        assertNotNull(color.enumConstants());
+        assertTrue(color.enumConstants().in(content).startsWith("RED"));
+        assertTrue(color.enumConstants().in(content).endsWith("BLUE"));
+        assertEquals(List.of("id"), color.members(MemberOutline.Kind.FIELD).stream().map(MemberOutline::name).toList());
+        assertEquals(2, color.members(MemberOutline.Kind.CONSTRUCTOR).size());
+
+        assertEquals(1, outline.findType("Outer.Point").orElseThrow().members(MemberOutline.Kind.CONSTRUCTOR).size());
+        assertEquals(List.of("value"), outline.findType("Outer.Marker").orElseThrow().members(MemberOutline.Kind.METHOD).stream().map(MemberOutline::name).toList());
+        assertTrue(outline.findType("Outer.Empty").orElseThrow().body().in(content).isBlank());
+        assertTrue(outline.findType("Outer.Missing").isEmpty());
+    }
+}
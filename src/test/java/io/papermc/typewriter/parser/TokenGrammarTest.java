@@ -0,0 +1,77 @@
+package io.papermc.typewriter.parser;
+
+import io.papermc.typewriter.parser.sequence.SequenceTokens;
+import io.papermc.typewriter.parser.sequence.TokenGrammar;
+import io.papermc.typewriter.parser.sequence.TokenTask;
+import io.papermc.typewriter.parser.sequence.hook.HookType;
+import io.papermc.typewriter.parser.token.TokenType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TokenGrammarTest extends ParserTest {
+
+    private static final TokenGrammar<List<String>> USES = TokenGrammar.<List<String>>builder()
+        .mapIdentifier(Predicate.isEqual("use"), (names, token) -> {}, action -> {
+                action
+                    .mapQualifiedName((names, name) -> names.add(name.value()), (names, dot) -> {}, null)
+                    .skip(TokenType.SECO);
+            },
+            params -> params.asOptional().asRepeatable()
+        )
+        .build();
+
+    private static List<String> parse(String content) {
+        List<String> names = new ArrayList<>();
+        assertTrue(USES.execute(new Lexer(content.toCharArray()), names));
+        return names;
+    }
+
+    @Test
+    public void testReuse() {
+        assertEquals(List.of("a", "b"), parse("use a.b;"));
+        assertEquals(List.of("c", "d", "e"), parse("use c; use d.e;"));
+    }
+
+    @Test
+    public void testSubFailure() {
+        List<TokenTask> failures = new ArrayList<>();
+        USES.execute(new Lexer("use a.b".toCharArray()), new ArrayList<>(), failures::add); // failure in sub action is kept even if the task is optional
+        assertEquals(1, failures.size());
+    }
+
+    @Test
+    public void testHooks() {
+        List<String> calls = new ArrayList<>();
+        TokenGrammar<Void> grammar = TokenGrammar.<Void>builder()
+            .skip(TokenType.IDENTIFIER, null, params -> params.hooks(manager -> {
+                manager.bind(HookType.EVERY, hook -> hook.pre(token -> calls.add("pre")));
+            }))
+            .skip(TokenType.SECO, null, params -> params.hooks(manager -> {
+                manager.bind(HookType.EVERY, hook -> hook.post(token -> calls.add("post")));
+            }))
+            .build();
+
+        assertTrue(grammar.execute(new Lexer("a;".toCharArray()), null));
+        assertEquals(List.of("pre", "post"), calls);
+    }
+
+    @Test
+    public void testSequence() {
+        List<String> names = new ArrayList<>();
+        boolean done = SequenceTokens.wrap(new Lexer("use a.b; use c;".toCharArray()))
+            .skipIdentifier(Predicate.isEqual("use"), action -> {
+                action
+                    .mapQualifiedName(name -> names.add(name.value()), dot -> {}, null)
+                    .skip(TokenType.SECO);
+            }, params -> params.asRepeatable())
+            .execute();
+        assertTrue(done);
+        assertEquals(List.of("a", "b", "c"), names);
+    }
+}
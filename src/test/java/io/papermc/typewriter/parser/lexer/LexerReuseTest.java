@@ -0,0 +1,71 @@
+package io.papermc.typewriter.parser.lexer;
+
+import io.papermc.typewriter.parser.Lexer;
+import io.papermc.typewriter.parser.ParserTest;
+import io.papermc.typewriter.parser.token.Token;
+import io.papermc.typewriter.parser.token.TokenType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class LexerReuseTest extends ParserTest {
+
+    private static final String FIRST_INPUT = """
+        /*
+            unfinished \\s
+              block
+        */
+        String a = \"""
+            text \\
+            block\\s
+            \""";
+        """;
+
+    private static final String SECOND_INPUT = """
+        // other
+        int b = 'c';
+        """;
+
+    private static List<Token> readAll(Lexer lexer) {
+        List<Token> tokens = new ArrayList<>();
+        Token token;
+        while ((token = lexer.readToken()).type() != TokenType.EOI) {
+            tokens.add(token);
+        }
+        return tokens;
+    }
+
+    @Test
+    public void testReset() {
+        Lexer lexer = new Lexer(FIRST_INPUT.toCharArray());
+        assertEquals(readAll(new Lexer(FIRST_INPUT.toCharArray())), readAll(lexer));
+
+        lexer.reset(SECOND_INPUT.toCharArray());
+        assertEquals(readAll(new Lexer(SECOND_INPUT.toCharArray())), readAll(lexer));
+    }
+
+    @Test
+    public void testAcquire() {
+        Lexer lexer = Lexer.acquire(FIRST_INPUT.toCharArray());
+        Lexer nestedLexer = Lexer.acquire(SECOND_INPUT.toCharArray());
+        assertNotSame(lexer, nestedLexer);
+        assertEquals(readAll(new Lexer(SECOND_INPUT.toCharArray())), readAll(nestedLexer));
+        nestedLexer.release();
+
+        lexer.readToken(); // leave the lexer in the middle of the input
+        lexer.release();
+
+        Lexer reusedLexer = Lexer.acquire(SECOND_INPUT.toCharArray());
+        try {
+            assertSame(lexer, reusedLexer);
+            assertEquals(readAll(new Lexer(SECOND_INPUT.toCharArray())), readAll(reusedLexer));
+        } finally {
+            reusedLexer.release();
+        }
+    }
+}
@@ -177,4 +177,27 @@ public class StringTest extends ParserTest {
                 assertSame(TokenType.SECO, secoToken.type());
             });
     }
+
+    @Test
+    public void testBlankTextBlock() {
+        parseJava("""
+                String abc = \"""
+
+                    \""";
+                """,
+            lexer -> {
+                CharSequenceToken identifierToken = lexer.nextToken(CharSequenceToken.class);
+                assertIdentifier(identifierToken, 0, "String");
+
+                CharSequenceToken identifierToken2 = lexer.nextToken(CharSequenceToken.class);
+                assertIdentifier(identifierToken2, "String".length() + 1, "abc");
+
+                CharSequenceBlockToken textBlockToken = lexer.nextToken(CharSequenceBlockToken.class);
+                assertSame(TokenType.PARAGRAPH, textBlockToken.type());
+                assertEquals(List.of("", ""), textBlockToken.value());
+
+                Token secoToken = lexer.nextToken();
+                assertSame(TokenType.SECO, secoToken.type());
+            });
+    }
 }
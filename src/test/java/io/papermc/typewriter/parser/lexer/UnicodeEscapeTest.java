@@ -1,6 +1,7 @@
 package io.papermc.typewriter.parser.lexer;
 
 import io.papermc.typewriter.parser.ParserTest;
+import io.papermc.typewriter.parser.token.CharSequenceBlockToken;
 import io.papermc.typewriter.parser.token.CharSequenceToken;
 import io.papermc.typewriter.parser.token.Token;
 import io.papermc.typewriter.parser.token.TokenType;
@@ -8,6 +9,7 @@ import javax.lang.model.element.Modifier;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.List;
 
 import static io.papermc.typewriter.parser.ParserAssertions.assertIdentifier;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -35,4 +37,35 @@ public class UnicodeEscapeTest extends ParserTest {
             assertSame(TokenType.SECO, secoToken.type());
         });
     }
+
+    @Test
+    public void testEscapeInsideRun() {
+        parseJava("""
+            "some \\u0073tring" // comment\\u000aabc
+            /* long \\u002a/ comment */
+            """,
+            lexer -> {
+                CharSequenceToken stringToken = lexer.nextToken(CharSequenceToken.class);
+                assertSame(TokenType.STRING, stringToken.type());
+                assertEquals("some string", stringToken.value());
+                assertSame(0, stringToken.column());
+                assertSame(1 + "some string".length() + 1, stringToken.endColumn());
+
+                CharSequenceToken commentToken = lexer.nextToken(CharSequenceToken.class);
+                assertSame(TokenType.SINGLE_COMMENT, commentToken.type());
+                assertEquals(" comment", commentToken.value());
+
+                CharSequenceToken identifierToken = lexer.nextToken(CharSequenceToken.class);
+                assertIdentifier(identifierToken, 0, "abc");
+                assertSame(2, identifierToken.row());
+
+                CharSequenceBlockToken blockToken = lexer.nextToken(CharSequenceBlockToken.class);
+                assertSame(TokenType.COMMENT, blockToken.type());
+                assertEquals(List.of("long"), blockToken.value());
+
+                CharSequenceToken trailingToken = lexer.nextToken(CharSequenceToken.class);
+                assertIdentifier(trailingToken, "/* long */ ".length(), "comment");
+                assertSame(TokenType.STAR, lexer.nextToken().type());
+            });
+    }
 }
@@ -0,0 +1,43 @@
+package io.papermc.typewriter.preset;
+
+import io.papermc.typewriter.context.IndentUnit;
+import io.papermc.typewriter.preset.model.CodeBlock;
+import io.papermc.typewriter.preset.model.CodeTemplate;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CodeTemplateTest {
+
+    private static final IndentUnit INDENT_UNIT = IndentUnit.parse("    ");
+
+    private static String emit(CodeTemplate template, Object... args) {
+        StringBuilder builder = new StringBuilder();
+        template.emit("  ", INDENT_UNIT, builder, args);
+        return builder.toString();
+    }
+
+    @Test
+    public void testSameAsFormat() {
+        String content = "if (true) {\n$>\nreturn;\n\n$<}";
+        StringBuilder expected = new StringBuilder();
+        CodeBlock.format(content).emitCode("  ", INDENT_UNIT, expected);
+        assertEquals(expected.toString(), emit(CodeTemplate.compile(content)));
+    }
+
+    @Test
+    public void testPlaceholders() {
+        CodeTemplate template = CodeTemplate.compile("$>register($S, $L);\n$<cost = $$1;");
+        assertEquals(2, template.slotCount());
+        assertEquals("      register(\"a\\\"b\\n\", 42);\n  cost = $1;\n", emit(template, "a\"b\n", 42));
+        assertEquals("      register(null, x);\n  cost = $1;\n", emit(template, null, "x"));
+    }
+
+    @Test
+    public void testInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> CodeTemplate.compile("a$x"));
+        assertThrows(IllegalStateException.class, () -> CodeTemplate.compile("$<a"));
+        assertThrows(IllegalArgumentException.class, () -> emit(CodeTemplate.compile("$L"), "a", "b"));
+    }
+}
@@ -0,0 +1,57 @@
+package io.papermc.typewriter.preset;
+
+import io.papermc.typewriter.replace.SearchMetadata;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Spliterator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StreamingEnumRewriterTest {
+
+    private static StreamingEnumRewriter<String> rewriter(List<String> values, boolean withArgument) {
+        return new StreamingEnumRewriter<>() {
+            @Override
+            protected Spliterator<String> getValues() {
+                return values.spliterator();
+            }
+
+            @Override
+            protected void writeConstant(String value, ConstantWriter writer) {
+                writer.name(value);
+                if (withArgument) {
+                    writer.arguments("\"" + value.toLowerCase() + "\"", "1");
+                }
+            }
+        };
+    }
+
+    @Test
+    public void testInsert() {
+        StringBuilder builder = new StringBuilder();
+        rewriter(List.of("A", "B"), true).insert(new SearchMetadata("    ", "    OLD;\n", 0), builder);
+        assertEquals("    A(\"a\", 1),\n    B(\"b\", 1);\n", builder.toString());
+
+        builder.setLength(0);
+        rewriter(List.of("A"), false).reachEnd(false).insert(new SearchMetadata("", "", 0), builder);
+        assertEquals("A,\n", builder.toString());
+    }
+
+    @Test
+    public void testMissingName() {
+        StreamingEnumRewriter<String> rewriter = new StreamingEnumRewriter<>() {
+            @Override
+            protected Spliterator<String> getValues() {
+                return List.of("A").spliterator();
+            }
+
+            @Override
+            protected void writeConstant(String value, ConstantWriter writer) {
+                writer.argument(value);
+            }
+        };
+        assertThrows(IllegalStateException.class, () -> rewriter.insert(new SearchMetadata("", "", 0), new StringBuilder()));
+    }
+}
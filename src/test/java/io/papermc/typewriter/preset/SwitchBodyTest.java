@@ -0,0 +1,41 @@
+package io.papermc.typewriter.preset;
+
+import io.papermc.typewriter.context.IndentUnit;
+import io.papermc.typewriter.preset.model.CodeBlock;
+import io.papermc.typewriter.preset.model.SwitchBody;
+import io.papermc.typewriter.preset.model.SwitchCases;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class SwitchBodyTest {
+
+    @Test
+    public void testMergeOrder() {
+        SwitchBody body = SwitchBody.of(
+            SwitchCases.inlined("\"z\"", CodeBlock.of("return 2;"), true),
+            SwitchCases.inlined("\"b\"", CodeBlock.of("return 1;"), true),
+            SwitchCases.inlined("\"a\"", CodeBlock.of("return 2;"), true),
+            SwitchCases.inlined("\"c\"", CodeBlock.of("return 0;"), true)
+        ).withDefault(CodeBlock.of("return 0;"));
+        body.mergeSimilarBranches(Comparator.naturalOrder());
+
+        StringBuilder builder = new StringBuilder();
+        body.emitCode("", IndentUnit.parse("    "), builder);
+        assertEquals("""
+            case "a", "z" -> return 2;
+            case "b" -> return 1;
+            default:
+                return 0;
+            """, builder.toString());
+    }
+
+    @Test
+    public void testIndentedBlocks() {
+        assertEquals(CodeBlock.format("a", "$>b"), CodeBlock.format("a", "$>b"));
+        assertNotEquals(CodeBlock.format("a", "$>b"), CodeBlock.of("a", "b"));
+    }
+}
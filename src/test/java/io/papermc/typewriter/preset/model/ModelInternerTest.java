@@ -0,0 +1,53 @@
+package io.papermc.typewriter.preset.model;
+
+import io.papermc.typewriter.context.IndentUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ModelInternerTest {
+
+    private static final IndentUnit INDENT_UNIT = IndentUnit.parse("    ");
+
+    private final boolean enabled = ModelInterner.isEnabled();
+
+    @AfterEach
+    public void restore() {
+        ModelInterner.setEnabled(this.enabled);
+    }
+
+    private static EnumConstant constant(String name) {
+        return EnumConstant.builder(name).arguments("1", "\"a\"").body(CodeBlock.of("return;")).build();
+    }
+
+    @Test
+    public void testShared() {
+        ModelInterner.setEnabled(true);
+        assertSame(CodeBlock.of("return;"), CodeBlock.of("return;"));
+        assertSame(CodeBlock.format("if (a) {\n$>return;\n$<}"), CodeBlock.format("if (a) {\n$>return;\n$<}"));
+        assertSame(CodeBlock.from(INDENT_UNIT, "if (a) {\n    return;\n}"), CodeBlock.from(INDENT_UNIT, "if (a) {\n    return;\n}"));
+
+        EnumConstant first = constant("FIRST");
+        EnumConstant second = constant("SECOND");
+        assertSame(first.arguments(), second.arguments());
+        assertSame(first.body(), second.body());
+    }
+
+    @Test
+    public void testFresh() {
+        ModelInterner.setEnabled(false);
+        assertNotSame(CodeBlock.of("return;"), CodeBlock.of("return;"));
+        assertNotSame(CodeBlock.format("if (a) {\n$>return;\n$<}"), CodeBlock.format("if (a) {\n$>return;\n$<}"));
+        assertNotSame(CodeBlock.from(INDENT_UNIT, "if (a) {\n    return;\n}"), CodeBlock.from(INDENT_UNIT, "if (a) {\n    return;\n}"));
+        assertEquals(CodeBlock.of("return;"), CodeBlock.of("return;"));
+
+        EnumConstant first = constant("FIRST");
+        EnumConstant second = constant("SECOND");
+        assertNotSame(first.arguments(), second.arguments());
+        assertNotSame(first.body(), second.body());
+        assertEquals(first.arguments(), second.arguments());
+    }
+}
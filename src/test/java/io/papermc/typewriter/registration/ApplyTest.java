@@ -0,0 +1,299 @@
+package io.papermc.typewriter.registration;
+
+import io.papermc.typewriter.RewrittenFile;
+import io.papermc.typewriter.SourceFile;
+import io.papermc.typewriter.SourceRewriter;
+import io.papermc.typewriter.context.IndentUnit;
+import io.papermc.typewriter.context.SourcesMetadata;
+import io.papermc.typewriter.preset.EnumCloneRewriter;
+import io.papermc.typewriter.replace.CompositeRewriter;
+import io.papermc.typewriter.replace.ReplaceOptions;
+import io.papermc.typewriter.replace.SearchMetadata;
+import io.papermc.typewriter.replace.SearchReplaceRewriter;
+import io.papermc.typewriter.util.ClassNamedView;
+import io.papermc.typewriter.util.ClassResolver;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ApplyTest {
+
+    private static final String CONTENT = """
+        package a;
+
+        class %s {
+            // Start generate - %1$s
+            // End generate - %1$s
+        }
+        """;
+
+    private static class TestSourceSet extends SourceSetRewriterImpl<TestSourceSet> {
+
+        TestSourceSet() {
+            this(SourcesMetadata.of(IndentUnit.parse("    ")));
+        }
+
+        TestSourceSet(SourcesMetadata metadata) {
+            super(metadata);
+        }
+    }
+
+    private static SearchReplaceRewriter rewriter(String name) {
+        return new SearchReplaceRewriter() {
+            @Override
+            protected void insert(SearchMetadata metadata, StringBuilder builder) {
+                builder.append(metadata.indent()).append("int generated;");
+                builder.append('\n');
+            }
+        }.withOptions(ReplaceOptions.between("Start generate - " + name, "End generate - " + name));
+    }
+
+    private static SourceFile write(Path dir, String name, String content) throws IOException {
+        Path path = dir.resolve("a/" + name + ".java");
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, content.formatted(name));
+        return SourceFile.of(dir.relativize(path));
+    }
+
+    @Test
+    public void testRollback(@TempDir Path dir) throws IOException {
+        SourceFile first = write(dir, "First", CONTENT);
+        SourceFile second = write(dir, "Second", "package a;\n\nclass Second {\n}\n");
+
+        TestSourceSet sourceSet = new TestSourceSet()
+            .register(first, rewriter("First"))
+            .register(second, rewriter("Second"));
+        assertThrows(IllegalStateException.class, () -> sourceSet.apply(dir));
+
+        assertEquals(CONTENT.formatted("First"), Files.readString(dir.resolve(first.path())));
+        try (Stream<Path> files = Files.list(dir.resolve("a"))) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    public void testCommit(@TempDir Path dir) throws IOException {
+        SourceFile first = write(dir, "First", CONTENT);
+        new TestSourceSet().register(first, rewriter("First")).apply(dir);
+
+        assertEquals(CONTENT.formatted("First").replace("First\n    //", "First\n    int generated;\n    //"), Files.readString(dir.resolve(first.path())));
+    }
+
+    @Test
+    public void testDryRun(@TempDir Path dir) throws IOException {
+        String content = """
+            package a;
+
+            enum Unit {
+                // Start generate - Unit
+                // End generate - Unit
+            }
+            """;
+        SourceFile file = write(dir, "Unit", content);
+        TestSourceSet sourceSet = new TestSourceSet()
+            .register(file, new EnumCloneRewriter<>(RoundingMode.class).withOptions(ReplaceOptions.between("Start generate - Unit", "End generate - Unit")));
+
+        RewrittenFile rewrittenFile = sourceSet.rewrite(dir).get(file);
+        assertFalse(rewrittenFile.isUpToDate());
+        assertEquals(content, Files.readString(dir.resolve(file.path())));
+
+        sourceSet.apply(dir);
+        assertTrue(sourceSet.rewrite(dir).get(file).isUpToDate()); // the rewriter state is reset between runs
+        assertEquals(rewrittenFile.contentAsString(), Files.readString(dir.resolve(file.path())));
+    }
+
+    private static SearchReplaceRewriter[] parallelRewriters(int count) {
+        SearchReplaceRewriter[] rewriters = new SearchReplaceRewriter[count];
+        for (int i = 0; i < rewriters.length; i++) {
+            String marker = String.valueOf((char) ('A' + i));
+            rewriters[i] = new SearchReplaceRewriter() {
+                @Override
+                protected void insert(SearchMetadata metadata, StringBuilder builder) {
+                    builder.append(metadata.indent()).append(this.importCollector.getShortName(List.class)).append("<?> ").append(marker.toLowerCase()).append(';');
+                    builder.append('\n');
+                }
+            }.withOptions(ReplaceOptions.between("Start generate - " + marker, "End generate - " + marker).generatedComment("Generated").parallelInsert());
+        }
+        return rewriters;
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testLegacyRewriter(@TempDir Path dir) throws IOException {
+        SourceFile file = write(dir, "Legacy", CONTENT);
+        SourceRewriter rewriter = new SourceRewriter() {
+            @Override
+            public void writeToFile(Path parent, SourcesMetadata metadata, ClassResolver resolver, ClassNamedView view, SourceFile file) throws IOException {
+                Path path = parent.resolve(file.path());
+                Files.writeString(path, Files.readString(path).replace("class", "final class"));
+            }
+        };
+        TestSourceSet sourceSet = new TestSourceSet().register(file, rewriter);
+
+        String expected = CONTENT.formatted("Legacy").replace("class", "final class");
+        assertEquals(expected, sourceSet.rewrite(dir).get(file).contentAsString());
+        assertEquals(CONTENT.formatted("Legacy"), Files.readString(dir.resolve(file.path())));
+
+        sourceSet.apply(dir);
+        assertEquals(expected, Files.readString(dir.resolve(file.path())));
+    }
+
+    @Test
+    public void testParallelInsert(@TempDir Path dir) throws IOException {
+        String content = """
+            package a;
+
+            import java.util.List;
+
+            class Parallel {
+                // Start generate - A
+                // End generate - A
+
+                // Start generate - B
+                int old;
+                // End generate - B
+            }
+            """;
+        SourceFile file = write(dir, "Parallel", content);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            new TestSourceSet(SourcesMetadata.of(IndentUnit.parse("    "), builder -> builder.executor(executor)))
+                .register(file, CompositeRewriter.bind(parallelRewriters(2)))
+                .apply(dir);
+        } finally {
+            executor.shutdown();
+        }
+
+        String expected = content
+            .replace("Start generate - A\n", "Start generate - A\n    // Generated\n    List<?> a;\n")
+            .replace("    int old;\n", "    // Generated\n    List<?> b;\n");
+        assertEquals(expected, Files.readString(dir.resolve(file.path())));
+    }
+
+    @Test
+    public void testParallelInsertImport(@TempDir Path dir) throws IOException {
+        String content = """
+            package a;
+
+            import java.util.Map;
+
+            class Parallel {
+                // Start generate - A
+                // End generate - A
+            }
+            """;
+        SourceFile file = write(dir, "Parallel", content);
+        TestSourceSet sourceSet = new TestSourceSet().register(file, parallelRewriters(1)[0]);
+
+        // the import would depend on the order in which the parallel inserts run
+        assertThrows(IllegalStateException.class, () -> sourceSet.apply(dir));
+        assertEquals(content, Files.readString(dir.resolve(file.path())));
+    }
+
+    @Test
+    public void testOutputCache(@TempDir Path dir) throws IOException {
+        SourceFile file = write(dir, "First", CONTENT);
+        AtomicInteger inserts = new AtomicInteger();
+        SearchReplaceRewriter rewriter = new SearchReplaceRewriter() {
+            @Override
+            protected String fingerprint() {
+                return "1";
+            }
+
+            @Override
+            protected void insert(SearchMetadata metadata, StringBuilder builder) {
+                inserts.incrementAndGet();
+                builder.append(metadata.indent()).append("int generated;");
+                builder.append('\n');
+            }
+        }.withOptions(ReplaceOptions.between("Start generate - First", "End generate - First"));
+
+        TestSourceSet sourceSet = new TestSourceSet(SourcesMetadata.of(IndentUnit.parse("    "), builder -> builder.outputCache(dir.resolve("cache"))))
+            .register(file, rewriter);
+        sourceSet.apply(dir);
+        String content = Files.readString(dir.resolve(file.path()));
+        sourceSet.apply(dir);
+
+        assertEquals(1, inserts.get());
+        assertEquals(content, Files.readString(dir.resolve(file.path())));
+    }
+
+    @Test
+    public void testOutputCacheDryRun(@TempDir Path dir) throws IOException {
+        SourceFile file = write(dir, "First", CONTENT);
+        SearchReplaceRewriter rewriter = new SearchReplaceRewriter() {
+            @Override
+            protected String fingerprint() {
+                return "1";
+            }
+
+            @Override
+            protected void insert(SearchMetadata metadata, StringBuilder builder) {
+                builder.append(metadata.indent()).append("int generated;");
+                builder.append('\n');
+            }
+        }.withOptions(ReplaceOptions.between("Start generate - First", "End generate - First"));
+
+        Path cache = dir.resolve("cache");
+        TestSourceSet sourceSet = new TestSourceSet(SourcesMetadata.of(IndentUnit.parse("    "), builder -> builder.outputCache(cache)))
+            .register(file, rewriter);
+        assertFalse(sourceSet.rewrite(dir).get(file).isUpToDate());
+        assertFalse(Files.exists(cache));
+
+        sourceSet.apply(dir);
+        assertTrue(Files.isDirectory(cache));
+    }
+
+    @Test
+    public void testChecksum(@TempDir Path dir) throws IOException {
+        SourceFile file = write(dir, "First", CONTENT);
+        AtomicInteger inserts = new AtomicInteger();
+        String[] fingerprint = {"1"};
+        SearchReplaceRewriter rewriter = new SearchReplaceRewriter() {
+            @Override
+            protected String fingerprint() {
+                return fingerprint[0];
+            }
+
+            @Override
+            protected void insert(SearchMetadata metadata, StringBuilder builder) {
+                inserts.incrementAndGet();
+                builder.append(metadata.indent()).append("int generated;");
+                builder.append('\n');
+            }
+        }.withOptions(ReplaceOptions.between("Start generate - First", "End generate - First").checksum());
+
+        TestSourceSet sourceSet = new TestSourceSet().register(file, rewriter);
+        sourceSet.apply(dir);
+        String content = Files.readString(dir.resolve(file.path()));
+        assertTrue(content.matches("(?s).*// Start generate - First \\(checksum [0-9a-f]{8}/[0-9a-f]{8}\\)\n    int generated;\n.*"), content);
+
+        assertFalse(sourceSet.rewrite(dir).get(file).changed());
+        sourceSet.apply(dir);
+        assertEquals(1, inserts.get());
+        assertEquals(content, Files.readString(dir.resolve(file.path())));
+
+        Files.writeString(dir.resolve(file.path()), content.replace("int generated;", "int edited;"));
+        sourceSet.apply(dir);
+        assertEquals(2, inserts.get());
+        assertEquals(content, Files.readString(dir.resolve(file.path())));
+
+        fingerprint[0] = "2";
+        sourceSet.apply(dir);
+        assertEquals(3, inserts.get());
+    }
+}
@@ -0,0 +1,31 @@
+package io.papermc.typewriter.replace;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReplacedContentTest {
+
+    @Test
+    public void testView() {
+        char[] source = "// start\n    A,\n    B;\n// end\n".toCharArray();
+        ReplacedContent content = new ReplacedContent(source, 9, 23);
+        assertEquals("    A,\n    B;\n", content.toString());
+        assertEquals(14, content.length());
+        assertEquals("A,", content.subSequence(4, 6).toString());
+        assertTrue(content.endsWithIgnoringWhitespace(";"));
+        assertFalse(content.endsWithIgnoringWhitespace(","));
+        assertFalse(content.isBlank());
+    }
+
+    @Test
+    public void testLineTerminators() {
+        char[] source = "A,\r\nB;\r\n".toCharArray();
+        ReplacedContent content = new ReplacedContent(source, 0, source.length);
+        assertEquals("A,\nB;\n", content.toString());
+        assertEquals(6, content.length());
+        assertTrue(content.endsWithIgnoringWhitespace("B;"));
+    }
+}
@@ -0,0 +1,69 @@
+package io.papermc.typewriter.replace;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SourceSpliceTest {
+
+    private static String splice(SourceSplice splice) throws IOException {
+        StringWriter output = new StringWriter();
+        splice.writeTo(output);
+        return output.toString();
+    }
+
+    @Test
+    public void testLines() {
+        SourceSplice splice = new SourceSplice("a\r\nb\rc\n".toCharArray());
+        assertEquals(3, splice.lineCount());
+        assertEquals("\r\n", splice.lineSeparator());
+        assertEquals(3, splice.lineStart(1));
+        assertEquals(4, splice.lineEnd(1));
+        assertEquals(1, splice.lineOf(4));
+        assertTrue(splice.endsWithTerminator());
+        assertFalse(new SourceSplice("a\nb".toCharArray()).endsWithTerminator());
+    }
+
+    @Test
+    public void testSplice() throws IOException {
+        SourceSplice splice = new SourceSplice("a\r\nb\r\nc\r\n".toCharArray());
+        splice.replace(splice.lineStart(2), splice.lineStart(2)).append("d\n");
+        splice.replace(splice.lineStart(1), splice.lineStart(2)).append("e\nf\n");
+        splice.replace(0, 0).append("g\n");
+        assertTrue(splice.isUntouched(0, 3));
+        assertFalse(splice.isUntouched(3, 5));
+
+        assertEquals("g\r\na\r\ne\r\nf\r\nd\r\nc\r\n", splice(splice));
+    }
+
+    @Test
+    public void testReplacementSink() throws IOException {
+        SourceSplice splice = new SourceSplice("a\n".toCharArray());
+        SourceSplice.Replacement replacement = splice.replace(0, 0);
+        replacement.append("b");
+        replacement.builder().append("c");
+        replacement.append('d').append("\n");
+        assertEquals("bcd\n", replacement.toString());
+        splice.replaceSeparately(splice.lineStart(1), splice.lineStart(1)).append("e\n");
+
+        assertEquals("bcd\na\ne\n", splice(splice));
+    }
+
+    @Test
+    public void testLargeReplacement() throws IOException {
+        SourceSplice splice = new SourceSplice("a\r\nb\r\n".toCharArray());
+        String line = "x".repeat(999) + "\n";
+        SourceSplice.Replacement replacement = splice.replace(0, 0);
+        for (int i = 0; i < 50; i++) {
+            replacement.append(line);
+        }
+        splice.replace(splice.lineStart(1), splice.lineStart(1)).append("c\n");
+
+        assertEquals(line.replace("\n", "\r\n").repeat(50) + "a\r\nc\r\nb\r\n", splice(splice));
+    }
+}
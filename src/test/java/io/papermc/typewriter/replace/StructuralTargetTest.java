@@ -0,0 +1,86 @@
+package io.papermc.typewriter.replace;
+
+import io.papermc.typewriter.SourceFile;
+import io.papermc.typewriter.context.IndentUnit;
+import io.papermc.typewriter.context.SourcesMetadata;
+import io.papermc.typewriter.util.ClassNamedView;
+import io.papermc.typewriter.util.ClassResolver;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StructuralTargetTest {
+
+    private static final String CONTENT = """
+        package a;
+
+        public enum Color {
+            // keep
+            RED,
+            GREEN;
+
+            private final int id = 0;
+        }
+        """;
+
+    private static String rewrite(Path dir, String content, SearchReplaceRewriter rewriter) throws IOException {
+        SourceFile file = SourceFile.of(Path.of("a/Color.java"));
+        Path path = dir.resolve(file.path());
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, content);
+
+        rewriter.registerFor(file);
+        rewriter.rewrite(dir, SourcesMetadata.of(IndentUnit.parse("    ")), ClassResolver.atRuntime(), new ClassNamedView(dir, 0, null), file).write();
+        return Files.readString(path);
+    }
+
+    private static SearchReplaceRewriter constants(String... names) {
+        return new SearchReplaceRewriter() {
+            @Override
+            protected void insert(SearchMetadata metadata, StringBuilder builder) {
+                for (int i = 0; i < names.length; i++) {
+                    builder.append(metadata.indent()).append(names[i]).append(i == names.length - 1 ? ";" : ",");
+                    builder.append('\n');
+                }
+            }
+        }.withOptions(ReplaceOptions.at(StructuralTarget.enumConstants()));
+    }
+
+    @Test
+    public void testEnumConstants(@TempDir Path dir) throws IOException {
+        String result = rewrite(dir, CONTENT, constants("BLUE", "YELLOW"));
+        assertEquals(CONTENT.replace("    RED,\n    GREEN;\n", "    BLUE,\n    YELLOW;\n"), result);
+    }
+
+    @Test
+    public void testEmptyEnum(@TempDir Path dir) throws IOException {
+        String result = rewrite(dir, "package a;\n\nenum Color {\n}\n", constants("RED"));
+        assertEquals("package a;\n\nenum Color {\n    RED;\n}\n", result);
+    }
+
+    @Test
+    public void testOutlineAfterRewrite(@TempDir Path dir) throws IOException {
+        SearchReplaceRewriter rewriter = new SearchReplaceRewriter() {
+            @Override
+            protected void insert(SearchMetadata metadata, StringBuilder builder) {
+            }
+        }.withOptions(ReplaceOptions.between("keep", "keep"));
+        rewrite(dir, CONTENT.replace("    RED,", "    // keep\n    RED,"), rewriter); // the outline is not used during the rewrite
+        rewrite(dir.resolve("other"), CONTENT, constants("BLUE")); // reuse the pooled lexer
+
+        assertTrue(rewriter.outline().findType("Color").isPresent());
+    }
+
+    @Test
+    public void testUnresolved(@TempDir Path dir) {
+        SearchReplaceRewriter rewriter = constants("RED").withOptions(ReplaceOptions.at(StructuralTarget.annotatedMembers("Missing")));
+        assertThrows(IllegalStateException.class, () -> rewrite(dir, CONTENT, rewriter));
+    }
+}